@@ -0,0 +1,209 @@
+package com.btcbit.test.benchmarks;
+
+import com.btcbit.test.driver.ChromeDriverResolver;
+import com.btcbit.test.driver.LaunchProfile;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of every locator of HomePage, SignupPage and ContactsPage against a CSS alternative,
+ * in headless Chrome on copies of the real pages captured by {@link PageCapture}: lookups by
+ * text or XPath get slower with the size of the DOM, so small fixture pages would mislead.
+ * <ul>
+ * <li>{@code roundTrip}: one driver.findElements() call, as the tests pay it</li>
+ * <li>{@code inPage}: the lookup alone, repeated inside the page, without the wire protocol</li>
+ * </ul>
+ * {@link #main(String[])} runs every locator {@link LocatorCatalog} finds, the CSS strategy only
+ * for locators that have an alternative. Run a subset with e.g.
+ * {@code -p locator=ContactsPage.POLAND_COMPANY_NAME}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmark {
+    private static final int IN_PAGE_REPETITIONS = 100;
+    private static final String ORIGINAL = "original";
+    private static final String CSS = "css";
+    private static final String UNSET = "set by LocatorBenchmark.main";
+
+    // Evaluates one Selenium lookup strategy the way the browser would, repeated
+    private static final String IN_PAGE_SCRIPT =
+            "var using = arguments[0], value = arguments[1], text = arguments[2], times = arguments[3];"
+            + "function find() {"
+            + "  if (using === 'xpath') {"
+            + "    var r = document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+            + "    return r.snapshotLength;"
+            + "  }"
+            + "  if (using === 'link text' || using === 'partial link text') {"
+            + "    return Array.prototype.filter.call(document.querySelectorAll('a'), function (a) {"
+            + "      var t = a.textContent.trim();"
+            + "      return using === 'link text' ? t === value : t.indexOf(value) >= 0;"
+            + "    }).length;"
+            + "  }"
+            + "  var found = document.querySelectorAll(value);"
+            + "  if (text === null) { return found.length; }"
+            + "  return Array.prototype.filter.call(found, function (e) {"
+            + "    return e.textContent.indexOf(text) >= 0;"
+            + "  }).length;"
+            + "}"
+            + "var count = 0;"
+            + "for (var i = 0; i < times; i++) { count = find(); }"
+            + "return count;";
+
+    // Same CSS plus text filter as one remote call, returning the matching elements
+    private static final String CSS_TEXT_SCRIPT =
+            "var text = arguments[1];"
+            + "return Array.prototype.filter.call(document.querySelectorAll(arguments[0]), function (e) {"
+            + "  return e.textContent.indexOf(text) >= 0;"
+            + "});";
+
+    // Every By field of the three page objects, filled in by main() from LocatorCatalog.keys();
+    // JMH needs a default, which setUp() rejects
+    @Param({UNSET})
+    public String locator;
+
+    /** "original" is the page object's locator, "css" its CSS alternative */
+    @Param({ORIGINAL, CSS})
+    public String strategy;
+
+    private Path page;
+    private ChromeDriver driver;
+    private By by;
+    private String using;
+    private String value;
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (!LocatorCatalog.keys().containsKey(locator)) {
+            throw new IllegalStateException("Unknown locator '" + locator + "', expected one of "
+                    + LocatorCatalog.keys().keySet() + "; LocatorBenchmark.main runs all of them");
+        }
+        page = Files.createTempFile("btcbit-benchmark-", ".html");
+        Files.write(page, LocatorCatalog.capturedPageOf(locator));
+        ChromeDriverResolver.resolve();
+        driver = new ChromeDriver(LaunchProfile.FAST.options());
+        driver.get(page.toUri().toString());
+
+        By original = LocatorCatalog.locator(locator, driver);
+        LocatorCatalog.CssAlternative alternative = LocatorCatalog.alternativeOf(locator);
+        if (CSS.equals(strategy)) {
+            if (alternative == null) {
+                // Plain CSS locators are their own alternative; the run would repeat "original"
+                throw new IllegalStateException(locator + " has no CSS alternative, run it with strategy=" + ORIGINAL);
+            }
+            by = By.cssSelector(alternative.getSelector());
+            text = alternative.getText();
+        } else {
+            by = original;
+            text = null;
+        }
+        By.Remotable.Parameters remote = ((By.Remotable) by).getRemoteParameters();
+        using = remote.using();
+        value = String.valueOf(remote.value());
+        System.out.println(locator + " (" + strategy + "): " + using + " " + value
+                + (text == null ? "" : " containing '" + text + "'") + ", matches " + inPage());
+    }
+
+    /**
+     * Runs the benchmarks with the locators of {@link LocatorCatalog#keys()}: the original
+     * strategy for all of them, then the CSS strategy for those with an alternative.
+     * Takes the usual JMH options; {@code -p locator=...} narrows the locators, and a result file
+     * ({@code -rff}) is written per strategy.
+     * @param args JMH command line
+     * @throws Exception if the command line is invalid or a run fails
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Set<String> known = LocatorCatalog.keys().keySet();
+        Collection<String> locators = commandLine.getParameter("locator").orElse(known);
+        List<String> withAlternative = new ArrayList<>();
+        for (String key : locators) {
+            if (!known.contains(key)) {
+                throw new IllegalArgumentException("Unknown locator " + key + ", known: " + known);
+            }
+            if (LocatorCatalog.alternativeOf(key) != null) {
+                withAlternative.add(key);
+            }
+        }
+        run(commandLine, locators, ORIGINAL);
+        if (!withAlternative.isEmpty()) {
+            run(commandLine, withAlternative, CSS);
+        }
+    }
+
+    private static void run(CommandLineOptions commandLine, Collection<String> locators, String strategy)
+            throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .include(LocatorBenchmark.class.getName())
+                .param("locator", locators.toArray(new String[0]))
+                .param("strategy", strategy);
+        if (commandLine.getResult().hasValue()) {
+            String result = commandLine.getResult().get();
+            int dot = result.lastIndexOf('.');
+            options.result(dot < 0 ? result + "-" + strategy : result.substring(0, dot) + "-" + strategy + result.substring(dot));
+        }
+        new Runner(options.build()).run();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (page != null) {
+            try {
+                Files.deleteIfExists(page);
+            } catch (IOException e) {
+                System.out.println("Failed to delete " + page + ": " + e.getMessage());
+            }
+        }
+    }
+
+    @Benchmark
+    public Object roundTrip() {
+        if (text != null) {
+            return ((JavascriptExecutor) driver).executeScript(CSS_TEXT_SCRIPT, value, text);
+        }
+        return driver.findElements(by);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(IN_PAGE_REPETITIONS)
+    public Object inPage() {
+        return ((JavascriptExecutor) driver).executeScript(IN_PAGE_SCRIPT, using, value, text, IN_PAGE_REPETITIONS);
+    }
+}
@@ -0,0 +1,203 @@
+package com.btcbit.test.benchmarks;
+
+import com.btcbit.test.pages.BasePage;
+import com.btcbit.test.pages.ContactsPage;
+import com.btcbit.test.pages.HomePage;
+import com.btcbit.test.pages.SignupPage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link By} fields of the benchmarked page objects, read by reflection so the
+ * benchmark always measures the locators the tests use, their CSS alternatives, and the
+ * captured copies of the real pages they are measured on (see {@link PageCapture}).
+ * CSS cannot match on text, so text-based locators are paired with a CSS selector plus a
+ * textContent filter evaluated in the page.
+ */
+public final class LocatorCatalog {
+    /** Classpath directory of the captured pages */
+    static final String PAGES_RESOURCE = "/pages/";
+
+    private static final Map<Class<? extends BasePage>, String> PAGE_PATHS = new LinkedHashMap<>();
+    private static final Map<String, CssAlternative> ALTERNATIVES = new HashMap<>();
+
+    static {
+        PAGE_PATHS.put(HomePage.class, "/");
+        PAGE_PATHS.put(SignupPage.class, "/sign_up/");
+        PAGE_PATHS.put(ContactsPage.class, "/contacts/");
+
+        css("HomePage.getStartedLinkByText", "a[href='/sign_up/']", null);
+        css("HomePage.getStartedLinkByPartialText", "a[href='/sign_up/']", null);
+        css("HomePage.getStartedLinkByXPath", "a[class*='header_signup'], a[href*='sign_up']", null);
+        css("HomePage.loginLinkByText", "a[href='/sign_in/']", null);
+        css("HomePage.loginLinkByPartialText", "a[href='/sign_in/']", null);
+        css("HomePage.loginLinkByXPath", "a[class*='header_login'], a[href*='sign_in']", null);
+        css("HomePage.contactUsLinkByText", "a[href='/contacts/']", null);
+        css("HomePage.contactUsLinkByPartialText", "a[href='/contacts/']", null);
+        css("HomePage.contactUsLinkByXPath", "a[class*='questions_button'], a[href*='/contacts/']", null);
+
+        css("SignupPage.agreeCheckboxByXPath", "input[type='checkbox'][id*='agree'], input[type='checkbox'][name*='agree'], "
+                + "input[type='checkbox'][class*='agree'], input[type='checkbox'][id*='terms'], input[type='checkbox'][name*='terms']", null);
+        css("SignupPage.agreeCheckboxByLabel", "label input[type='checkbox'], label + input[type='checkbox']", null);
+        css("SignupPage.emailValidationError", "div", "Email not valid! Please try other");
+        css("SignupPage.emailValidationErrorContains", "div", "Email not valid");
+
+        css("ContactsPage.POLAND_OFFICE_HEADER", "h2", "Poland");
+        css("ContactsPage.ESTONIA_OFFICE_HEADER", "h2", "Estonia");
+        css("ContactsPage.POLAND_COMPANY_NAME", "h3", "BTCBIT Sp. z o.o.");
+        css("ContactsPage.POLAND_ADDRESS_COMPANY", "h3", "BTCBIT Sp. z o.o. ");
+        css("ContactsPage.POLAND_ADDRESS_STREET", "h3", "Ul. Gesia 8 - 205, 31-535 ");
+        css("ContactsPage.POLAND_ADDRESS_CITY", "h3", "Krakow, Poland");
+        css("ContactsPage.POLAND_REG_NUMBER", "div p", "369827363");
+        css("ContactsPage.POLAND_PHONE", "li > a[href='tel:+48588813222']", null);
+        css("ContactsPage.ESTONIA_COMPANY_NAME", "h3", "BTCBIT OÜ");
+        css("ContactsPage.ESTONIA_ADDRESS_COMPANY", "h3", "BTCBIT OÜ ");
+        css("ContactsPage.ESTONIA_ADDRESS_STREET", "h3", "Pikk tn 33-3, 10133");
+        css("ContactsPage.ESTONIA_ADDRESS_CITY", "h3", "Tallinn, Estonia");
+        css("ContactsPage.ESTONIA_REG_NUMBER", "div p", "16121208");
+        css("ContactsPage.ESTONIA_PHONE", "li > a[href='tel:+3728803222']", null);
+    }
+
+    private LocatorCatalog() {
+    }
+
+    /**
+     * @param key locator key, "PageClass.field"
+     * @return page object class declaring the locator
+     */
+    public static Class<? extends BasePage> pageOf(String key) {
+        String page = key.substring(0, key.indexOf('.'));
+        for (Class<? extends BasePage> type : PAGE_PATHS.keySet()) {
+            if (type.getSimpleName().equals(page)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown page in locator key " + key);
+    }
+
+    /**
+     * @return benchmarked page object classes
+     */
+    public static Set<Class<? extends BasePage>> pages() {
+        return PAGE_PATHS.keySet();
+    }
+
+    /**
+     * @param page benchmarked page object class
+     * @return path of the page on the site
+     */
+    public static String pathOf(Class<? extends BasePage> page) {
+        return PAGE_PATHS.get(page);
+    }
+
+    /**
+     * @param page benchmarked page object class
+     * @return file name of the captured page, e.g. ContactsPage.html
+     */
+    public static String resourceNameOf(Class<? extends BasePage> page) {
+        return page.getSimpleName() + ".html";
+    }
+
+    /**
+     * Reads the captured copy of the page a locator belongs to
+     * @param key locator key, "PageClass.field"
+     * @return page source
+     * @throws IOException if the captured page cannot be read
+     * @throws IllegalStateException if the page has not been captured
+     */
+    public static byte[] capturedPageOf(String key) throws IOException {
+        String resource = PAGES_RESOURCE + resourceNameOf(pageOf(key));
+        try (InputStream in = LocatorCatalog.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("No captured page " + resource + "; run PageCapture against the site"
+                        + " and rebuild the benchmarks");
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Reads a locator from a page object bound to the benchmark's driver
+     * @param key locator key, "PageClass.field"
+     * @param driver driver the page object is created with
+     * @return the page object's locator
+     */
+    public static By locator(String key, WebDriver driver) {
+        Class<? extends BasePage> type = pageOf(key);
+        String fieldName = key.substring(key.indexOf('.') + 1);
+        try {
+            Field field = type.getDeclaredField(fieldName);
+            if (field.getType() != By.class) {
+                throw new IllegalArgumentException(key + " is not a locator");
+            }
+            field.setAccessible(true);
+            Object page = Modifier.isStatic(field.getModifiers())
+                    ? null
+                    : type.getConstructor(WebDriver.class).newInstance(driver);
+            return (By) field.get(page);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("No locator " + key + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lists all locator keys of the benchmarked page objects
+     * @return keys in declaration order
+     */
+    public static Map<String, Class<? extends BasePage>> keys() {
+        Map<String, Class<? extends BasePage>> keys = new LinkedHashMap<>();
+        for (Class<? extends BasePage> type : PAGE_PATHS.keySet()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.getType() == By.class) {
+                    keys.put(type.getSimpleName() + "." + field.getName(), type);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * @param key locator key
+     * @return CSS alternative, or null if the locator already is a plain CSS selector
+     */
+    public static CssAlternative alternativeOf(String key) {
+        return ALTERNATIVES.get(key);
+    }
+
+    private static void css(String key, String selector, String text) {
+        ALTERNATIVES.put(key, new CssAlternative(selector, text));
+    }
+
+    /**
+     * CSS selector, optionally narrowed to elements whose text contains a value
+     */
+    public static class CssAlternative {
+        private final String selector;
+        private final String text;
+
+        CssAlternative(String selector, String text) {
+            this.selector = selector;
+            this.text = text;
+        }
+
+        public String getSelector() {
+            return selector;
+        }
+
+        /**
+         * @return text the element must contain, or null for a pure CSS match
+         */
+        public String getText() {
+            return text;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.btcbit.test.benchmarks;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.driver.ChromeDriverResolver;
+import com.btcbit.test.driver.LaunchProfile;
+import com.btcbit.test.pages.BasePage;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Saves the rendered DOM of the real home, sign-up and contacts pages as the benchmark's
+ * page resources, so locators are timed against the site's DOM size and structure.
+ * Scripts and external resources are stripped: the copy is a static DOM that looks the same
+ * to a locator every time and never reaches the network. Frames keep their element but load nothing.
+ * Run from the repository root:
+ * {@code java -cp benchmarks/target/benchmarks.jar com.btcbit.test.benchmarks.PageCapture},
+ * optionally with -Dbtcbit.baseUrl and the output directory as the only argument.
+ */
+public final class PageCapture {
+    private static final String DEFAULT_DIRECTORY = "benchmarks/src/main/resources" + LocatorCatalog.PAGES_RESOURCE;
+    private static final Duration LOAD_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String SANITIZE_SCRIPT =
+            "var root = document.documentElement.cloneNode(true);"
+            + "root.querySelectorAll('script, link, base').forEach(function (e) { e.remove(); });"
+            + "root.querySelectorAll('iframe, frame').forEach(function (e) { e.setAttribute('src', 'about:blank'); });"
+            + "root.querySelectorAll('img, source, video, audio').forEach(function (e) {"
+            + "  e.removeAttribute('src'); e.removeAttribute('srcset');"
+            + "});"
+            + "return '<!DOCTYPE html>\\n' + root.outerHTML;";
+
+    private PageCapture() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Paths.get(args.length > 0 ? args[0] : DEFAULT_DIRECTORY);
+        Files.createDirectories(directory);
+        ChromeDriverResolver.resolve();
+        ChromeDriver driver = new ChromeDriver(LaunchProfile.FAST.options());
+        try {
+            for (Class<? extends BasePage> page : LocatorCatalog.pages()) {
+                String url = TestConfig.baseUrl() + LocatorCatalog.pathOf(page);
+                driver.get(url);
+                // The fast profile does not wait for the load event; the DOM must be complete
+                new WebDriverWait(driver, LOAD_TIMEOUT).until(d -> "complete".equals(
+                        ((JavascriptExecutor) d).executeScript("return document.readyState")));
+                String html = (String) driver.executeScript(SANITIZE_SCRIPT);
+                Path file = directory.resolve(LocatorCatalog.resourceNameOf(page));
+                Files.write(file, ("<!-- Captured from " + url + " at " + Instant.now() + " -->\n" + html)
+                        .getBytes(StandardCharsets.UTF_8));
+                System.out.println("Captured " + url + " to " + file + " (" + html.length() / 1024 + " KB)");
+            }
+        } finally {
+            driver.quit();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.btcbit.test.config;
+
+/**
+ * What a performance gate does when it finds a regression
+ */
+public enum GateMode {
+    /** The gate is not evaluated */
+    OFF,
+    /** Regressions are reported, the build passes */
+    WARN,
+    /** Regressions fail the build */
+    FAIL
+}
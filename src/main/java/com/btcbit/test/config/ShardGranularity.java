@@ -0,0 +1,11 @@
+package com.btcbit.test.config;
+
+/**
+ * Unit the sharded runner distributes across JVMs
+ */
+public enum ShardGranularity {
+    /** Whole test classes; a class's @BeforeAll setup runs once */
+    CLASS,
+    /** Single test methods; balances better, at the cost of class setup in every shard */
+    METHOD
+}
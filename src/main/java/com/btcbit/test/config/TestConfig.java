@@ -0,0 +1,505 @@
+package com.btcbit.test.config;
+
+import com.btcbit.test.driver.LaunchProfile;
+import com.btcbit.test.network.NetworkMode;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Central access point for run-time settings.
+ * Every setting can be overridden with a JVM system property (-Dkey=value),
+ * which Maven passes through to the test JVM.
+ */
+public final class TestConfig {
+    public static final String BASE_URL = "btcbit.baseUrl";
+    public static final String STAND_IN = "btcbit.standin";
+    public static final String LOGIN_EMAIL = "btcbit.login.email";
+    public static final String LOGIN_PASSWORD = "btcbit.login.password";
+    public static final String MAX_PARALLEL_SESSIONS = "btcbit.parallel.max";
+    public static final String SESSION_RECYCLING = "btcbit.session.recycle";
+    public static final String SESSION_MAX_REUSES = "btcbit.session.maxReuses";
+    public static final String ACTION_TIMEOUT_MS = "btcbit.wait.actionTimeoutMs";
+    public static final String LOCATOR_CACHE_FILE = "btcbit.locatorCache.file";
+    public static final String VERIFICATION_MODE = "btcbit.verify.mode";
+    public static final String AUTH_SESSION_MAX_AGE_MINUTES = "btcbit.auth.maxAgeMinutes";
+    public static final String NETWORK_MODE = "btcbit.network.mode";
+    public static final String NETWORK_ARCHIVE_DIR = "btcbit.network.archive";
+    public static final String RESOURCE_BLOCKING = "btcbit.resources.block";
+    public static final String RESOURCE_STATS_FILE = "btcbit.resources.statsFile";
+    public static final String LAUNCH_PROFILE = "btcbit.launch.profile";
+    public static final String LAUNCH_STATS_FILE = "btcbit.launch.statsFile";
+    public static final String DRIVER_CACHE_DIR = "btcbit.driver.cacheDir";
+    public static final String CHROME_VERSION = "btcbit.chrome.version";
+    public static final String METRICS_ENABLED = "btcbit.metrics.enabled";
+    public static final String PERF_REPORT_DIR = "btcbit.perf.dir";
+    public static final String COMMAND_BUDGETS = "btcbit.commands.enforce";
+    public static final String BASELINE_FILE = "btcbit.baseline.file";
+    public static final String BASELINE_WINDOW = "btcbit.baseline.window";
+    public static final String BASELINE_MIN_SAMPLES = "btcbit.baseline.minSamples";
+    public static final String BASELINE_THRESHOLD_PERCENT = "btcbit.baseline.thresholdPercent";
+    public static final String BASELINE_MIN_DELTA_MS = "btcbit.baseline.minDeltaMs";
+    public static final String BASELINE_GATE = "btcbit.baseline.gate";
+    public static final String PERF_BUDGETS = "btcbit.perf.budgets";
+    public static final String PERF_GATE = "btcbit.perf.gate";
+    public static final String HTMLUNIT_ENABLED = "btcbit.htmlunit.enabled";
+    public static final String HTMLUNIT_MAX_SESSIONS = "btcbit.htmlunit.max";
+    public static final String SHARD_COUNT = "btcbit.shards.count";
+    public static final String SHARD_GRANULARITY = "btcbit.shards.granularity";
+    public static final String SHARD_DIR = "btcbit.shards.dir";
+    public static final String HUMAN_GATE_PORT = "btcbit.gate.port";
+    public static final String HUMAN_GATE_CONSOLE = "btcbit.gate.console";
+    public static final String HUMAN_GATE_TIMEOUT_SECONDS = "btcbit.gate.timeoutSeconds";
+    public static final String TEST_DATA_BUFFER_SIZE = "btcbit.data.bufferSize";
+    public static final String TEST_DATA_RUN_ID = "btcbit.data.runId";
+    public static final String LOAD_USERS = "btcbit.load.users";
+    public static final String LOAD_RAMP_UP_SECONDS = "btcbit.load.rampUpSeconds";
+    public static final String LOAD_DURATION_SECONDS = "btcbit.load.durationSeconds";
+    public static final String LOAD_THINK_TIME_MS = "btcbit.load.thinkTimeMs";
+    public static final String LOAD_ALLOW_REMOTE = "btcbit.load.allowRemote";
+
+    private TestConfig() {
+    }
+
+    /**
+     * Origin of the site under test, without a trailing slash
+     * @return base URL, defaults to https://btcbit.net
+     */
+    public static String baseUrl() {
+        String url = getString(BASE_URL, "https://btcbit.net");
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Points every page object created afterwards at another server, e.g. the local stand-in
+     * @param url origin of the site
+     */
+    public static void setBaseUrl(String url) {
+        System.setProperty(BASE_URL, url);
+    }
+
+    /**
+     * Whether tests run against the embedded stand-in server instead of the live site
+     * @return true if enabled with -Dbtcbit.standin=true
+     */
+    public static boolean standInEnabled() {
+        return getBoolean(STAND_IN, false);
+    }
+
+    /**
+     * @return email of the test account with valid credentials
+     */
+    public static String loginEmail() {
+        return getString(LOGIN_EMAIL, "sharapov.k44@gmail.com");
+    }
+
+    /**
+     * @return password of the test account with valid credentials
+     */
+    public static String loginPassword() {
+        return getString(LOGIN_PASSWORD, "7xREycej$7C@kJ");
+    }
+
+    /**
+     * Maximum number of browser sessions that may be open at the same time.
+     * Defaults to the number of available processors.
+     * @return concurrency cap, never less than 1
+     */
+    public static int maxParallelSessions() {
+        return Math.max(1, getInt(MAX_PARALLEL_SESSIONS, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Whether browser sessions are reset and reused between tests instead of quit
+     * @return true unless disabled with -Dbtcbit.session.recycle=false
+     */
+    public static boolean sessionRecyclingEnabled() {
+        return getBoolean(SESSION_RECYCLING, true);
+    }
+
+    /**
+     * Number of times a browser session may be reused before it is quit and relaunched
+     * @return maximum reuse count, defaults to 20
+     */
+    public static int sessionMaxReuses() {
+        return Math.max(0, getInt(SESSION_MAX_REUSES, 20));
+    }
+
+    /**
+     * Time budget shared by all waits of a single page action
+     * @return action budget, defaults to 10 seconds
+     */
+    public static Duration actionTimeout() {
+        return Duration.ofMillis(Math.max(0, getInt(ACTION_TIMEOUT_MS, 10000)));
+    }
+
+    /**
+     * File that keeps the winning locator strategy per element between runs
+     * @return path of the locator cache file
+     */
+    public static String locatorCacheFile() {
+        return getString(LOCATOR_CACHE_FILE, ".btcbit/locator-cache.properties");
+    }
+
+    /**
+     * Where static page checks are evaluated
+     * @return BROWSER (default) or SNAPSHOT, set with -Dbtcbit.verify.mode=snapshot
+     */
+    public static VerificationMode verificationMode() {
+        String value = getString(VERIFICATION_MODE, VerificationMode.BROWSER.name());
+        try {
+            return VerificationMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + VERIFICATION_MODE + ": " + value + ", using BROWSER");
+            return VerificationMode.BROWSER;
+        }
+    }
+
+    /**
+     * Upper bound on how long a cached login session is reused
+     * @return maximum age in minutes, defaults to 30
+     */
+    public static int authSessionMaxAgeMinutes() {
+        return Math.max(0, getInt(AUTH_SESSION_MAX_AGE_MINUTES, 30));
+    }
+
+    /**
+     * Whether browser traffic is live, recorded to the network archive or replayed from it
+     * @return LIVE (default), RECORD or REPLAY, set with -Dbtcbit.network.mode=replay
+     */
+    public static NetworkMode networkMode() {
+        String value = getString(NETWORK_MODE, NetworkMode.LIVE.name());
+        try {
+            return NetworkMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + NETWORK_MODE + ": " + value + ", using LIVE");
+            return NetworkMode.LIVE;
+        }
+    }
+
+    /**
+     * Directory of the recorded network archive
+     * @return archive directory, defaults to .btcbit/network-archive
+     */
+    public static String networkArchiveDirectory() {
+        return getString(NETWORK_ARCHIVE_DIR, ".btcbit/network-archive");
+    }
+
+    /**
+     * Whether page objects block the resources their {@code @BlockResources} profile excludes
+     * @return true unless disabled with -Dbtcbit.resources.block=false
+     */
+    public static boolean resourceBlockingEnabled() {
+        return getBoolean(RESOURCE_BLOCKING, true);
+    }
+
+    /**
+     * File that accumulates page load cost per page object and resource profile
+     * @return path of the statistics file
+     */
+    public static String resourceStatsFile() {
+        return getString(RESOURCE_STATS_FILE, ".btcbit/resource-profiles.properties");
+    }
+
+    /**
+     * Chrome options browser sessions are started with
+     * @return DEFAULT (visible browser) or FAST (headless, eager), set with -Dbtcbit.launch.profile=fast
+     */
+    public static LaunchProfile launchProfile() {
+        String value = getString(LAUNCH_PROFILE, LaunchProfile.DEFAULT.name());
+        try {
+            return LaunchProfile.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + LAUNCH_PROFILE + ": " + value + ", using DEFAULT");
+            return LaunchProfile.DEFAULT;
+        }
+    }
+
+    /**
+     * File that accumulates launch timings per launch profile
+     * @return path of the statistics file
+     */
+    public static String launchStatsFile() {
+        return getString(LAUNCH_STATS_FILE, ".btcbit/launch-times.properties");
+    }
+
+    /**
+     * Directory of chromedriver binaries shared by all builds on the machine, one subdirectory per Chrome major version
+     * @return cache directory, defaults to ~/.cache/btcbit/chromedriver
+     */
+    public static String driverCacheDir() {
+        return getString(DRIVER_CACHE_DIR,
+                Paths.get(System.getProperty("user.home"), ".cache", "btcbit", "chromedriver").toString());
+    }
+
+    /**
+     * Whether page-object methods are timed into latency histograms
+     * @return true unless disabled with -Dbtcbit.metrics.enabled=false
+     */
+    public static boolean metricsEnabled() {
+        return getBoolean(METRICS_ENABLED, true);
+    }
+
+    /**
+     * Directory performance reports are written to
+     * @return report directory, defaults to target/perf
+     */
+    public static String perfReportDir() {
+        return getString(PERF_REPORT_DIR, "target/perf");
+    }
+
+    /**
+     * Whether tests fail when they issue more WebDriver commands than their budget allows
+     * @return true unless disabled with -Dbtcbit.commands.enforce=false
+     */
+    public static boolean commandBudgetsEnforced() {
+        return getBoolean(COMMAND_BUDGETS, true);
+    }
+
+    /**
+     * File with the recent per-test, per-phase durations. Durations only compare within one
+     * setup, so every {@link #runConfiguration()} keeps its own file
+     * @return path of the baseline file, defaults to .btcbit/durations/&lt;configuration&gt;.json
+     */
+    public static String baselineFile() {
+        return getString(BASELINE_FILE, ".btcbit/durations/" + runConfiguration() + ".json");
+    }
+
+    /**
+     * Name of the setup test timings depend on: target (stand-in or host of the base URL),
+     * launch profile, network mode and whether tests marked for HtmlUnit run on it
+     * @return configuration name usable as a file name, e.g. btcbit.net-default-live-chrome
+     */
+    public static String runConfiguration() {
+        String target = "standin";
+        if (!standInEnabled()) {
+            URI uri = URI.create(baseUrl());
+            target = uri.getHost() == null ? baseUrl() : uri.getHost() + (uri.getPort() == -1 ? "" : "_" + uri.getPort());
+        }
+        String name = target + "-" + launchProfile().name() + "-" + networkMode().name() + "-"
+                + (htmlUnitEnabled() ? "htmlunit" : "chrome");
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+    }
+
+    /**
+     * Number of recent runs per test the rolling baseline is built from
+     * @return window size, defaults to 10
+     */
+    public static int baselineWindow() {
+        return Math.max(1, getInt(BASELINE_WINDOW, 10));
+    }
+
+    /**
+     * Number of stored runs a test needs before it is gated
+     * @return minimum sample count, defaults to 3
+     */
+    public static int baselineMinSamples() {
+        return Math.max(1, getInt(BASELINE_MIN_SAMPLES, 3));
+    }
+
+    /**
+     * How much slower than its baseline a test may get
+     * @return allowed growth in percent, defaults to 30
+     */
+    public static int baselineThresholdPercent() {
+        return Math.max(0, getInt(BASELINE_THRESHOLD_PERCENT, 30));
+    }
+
+    /**
+     * Smallest slowdown that counts as a regression, so fast tests do not trip on noise
+     * @return minimum growth in milliseconds, defaults to 1000
+     */
+    public static int baselineMinDeltaMs() {
+        return Math.max(0, getInt(BASELINE_MIN_DELTA_MS, 1000));
+    }
+
+    /**
+     * What the duration gate does with regressions
+     * @return OFF, WARN (default) or FAIL, set with -Dbtcbit.baseline.gate=fail
+     */
+    public static GateMode baselineGate() {
+        String value = getString(BASELINE_GATE, GateMode.WARN.name());
+        try {
+            return GateMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + BASELINE_GATE + ": " + value + ", using WARN");
+            return GateMode.WARN;
+        }
+    }
+
+    /**
+     * Classpath resource with the front-end performance budgets per page
+     * @return resource name, defaults to perf-budgets.properties
+     */
+    public static String perfBudgetsResource() {
+        return getString(PERF_BUDGETS, "perf-budgets.properties");
+    }
+
+    /**
+     * What happens when a navigation exceeds its performance budget
+     * @return OFF, WARN (default) or FAIL, set with -Dbtcbit.perf.gate=fail
+     */
+    public static GateMode perfGate() {
+        String value = getString(PERF_GATE, GateMode.WARN.name());
+        try {
+            return GateMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + PERF_GATE + ": " + value + ", using WARN");
+            return GateMode.WARN;
+        }
+    }
+
+    /**
+     * Number of parallel JVMs the sharded runner splits the suite into
+     * @return shard count, defaults to 2
+     */
+    public static int shardCount() {
+        return Math.max(1, getInt(SHARD_COUNT, 2));
+    }
+
+    /**
+     * Whether the sharded runner assigns whole test classes or single test methods to shards
+     * @return CLASS or METHOD (default), set with -Dbtcbit.shards.granularity=class
+     */
+    public static ShardGranularity shardGranularity() {
+        String value = getString(SHARD_GRANULARITY, ShardGranularity.METHOD.name());
+        try {
+            return ShardGranularity.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid value for " + SHARD_GRANULARITY + ": " + value + ", using METHOD");
+            return ShardGranularity.METHOD;
+        }
+    }
+
+    /**
+     * Directory the sharded runner writes per-shard output and the merged report to
+     * @return shard directory, defaults to target/shards
+     */
+    public static String shardDir() {
+        return getString(SHARD_DIR, "target/shards");
+    }
+
+    /**
+     * Whether tests marked for the HtmlUnit backend run on it; otherwise every test gets Chrome.
+     * Off by default, since a marked page that starts rendering with JavaScript would still pass
+     * on HtmlUnit against its server-rendered HTML only
+     * @return true only if enabled with -Dbtcbit.htmlunit.enabled=true
+     */
+    public static boolean htmlUnitEnabled() {
+        return getBoolean(HTMLUNIT_ENABLED, false);
+    }
+
+    /**
+     * Maximum number of HtmlUnit sessions alive at the same time
+     * @return concurrency cap, defaults to 100
+     */
+    public static int htmlUnitMaxSessions() {
+        return Math.max(1, getInt(HTMLUNIT_MAX_SESSIONS, 100));
+    }
+
+    /**
+     * Local port the human gate listens on for solved/failed notifications
+     * @return port, defaults to 0 for a free one (printed with every gate)
+     */
+    public static int humanGatePort() {
+        return Math.max(0, getInt(HUMAN_GATE_PORT, 0));
+    }
+
+    /**
+     * Whether the human gate also reads answers from the console
+     * @return true unless disabled with -Dbtcbit.gate.console=false
+     */
+    public static boolean humanGateConsoleEnabled() {
+        return getBoolean(HUMAN_GATE_CONSOLE, true);
+    }
+
+    /**
+     * How long a flow waits for a human before giving up
+     * @return gate timeout, defaults to 60 seconds
+     */
+    public static Duration humanGateTimeout() {
+        return Duration.ofSeconds(Math.max(1, getInt(HUMAN_GATE_TIMEOUT_SECONDS, 60)));
+    }
+
+    /**
+     * Number of test identities generated ahead of use
+     * @return buffer capacity, defaults to 256
+     */
+    public static int testDataBufferSize() {
+        return Math.max(1, getInt(TEST_DATA_BUFFER_SIZE, 256));
+    }
+
+    /**
+     * Suffix that keeps generated emails unique across runs
+     * @return run ID, defaults to the start time and process ID in base 36
+     */
+    public static String testDataRunId() {
+        return getString(TEST_DATA_RUN_ID, Long.toString(System.currentTimeMillis(), 36)
+                + Long.toString(ProcessHandle.current().pid(), 36)).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Number of concurrent headless sessions the login load generator runs
+     * @return session count, defaults to 4
+     */
+    public static int loadUsers() {
+        return Math.max(1, getInt(LOAD_USERS, 4));
+    }
+
+    /**
+     * Time over which the load generator starts its sessions, evenly staggered
+     * @return ramp-up period, defaults to 10 seconds
+     */
+    public static Duration loadRampUp() {
+        return Duration.ofSeconds(Math.max(0, getInt(LOAD_RAMP_UP_SECONDS, 10)));
+    }
+
+    /**
+     * Steady-state period after the ramp-up that throughput and latencies are measured over
+     * @return steady-state duration, defaults to 60 seconds
+     */
+    public static Duration loadDuration() {
+        return Duration.ofSeconds(Math.max(1, getInt(LOAD_DURATION_SECONDS, 60)));
+    }
+
+    /**
+     * Pause every load session takes between two login attempts
+     * @return think time, defaults to none
+     */
+    public static Duration loadThinkTime() {
+        return Duration.ofMillis(Math.max(0, getInt(LOAD_THINK_TIME_MS, 0)));
+    }
+
+    /**
+     * Whether the load generator may target a host other than the local machine
+     * @return true only if enabled with -Dbtcbit.load.allowRemote=true
+     */
+    public static boolean loadAllowRemote() {
+        return getBoolean(LOAD_ALLOW_REMOTE, false);
+    }
+
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + key + ": " + value + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
@@ -0,0 +1,11 @@
+package com.btcbit.test.config;
+
+/**
+ * Where page-object checks are evaluated
+ */
+public enum VerificationMode {
+    /** In the live browser, with a batched script call */
+    BROWSER,
+    /** In-process against a parsed copy of the rendered page source */
+    SNAPSHOT
+}
@@ -0,0 +1,172 @@
+package com.btcbit.test.driver;
+
+import com.btcbit.test.config.TestConfig;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds a chromedriver binary matching the installed Chrome without network access when possible.
+ * Binaries are cached per Chrome major version in a directory shared by all builds on the machine;
+ * WebDriverManager is only asked when the cache has no match.
+ * A file lock per version keeps concurrently starting JVMs from downloading or copying the same binary twice.
+ */
+public final class ChromeDriverResolver {
+    private static final String DRIVER_PROPERTY = "webdriver.chrome.driver";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+\\.\\d+\\.\\d+");
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("win");
+
+    private ChromeDriverResolver() {
+    }
+
+    /**
+     * Points {@code webdriver.chrome.driver} at a chromedriver for the installed Chrome.
+     * An explicitly set {@code webdriver.chrome.driver} is left as it is.
+     * @return path of the chromedriver binary
+     * @throws IllegalStateException if no binary is cached and none can be downloaded
+     */
+    public static synchronized Path resolve() {
+        String configured = System.getProperty(DRIVER_PROPERTY);
+        if (configured != null && Files.isExecutable(Paths.get(configured))) {
+            return Paths.get(configured);
+        }
+
+        String major = chromeMajorVersion();
+        if (major == null) {
+            System.out.println("Installed Chrome version not detected, asking WebDriverManager");
+            return useDriver(download(null));
+        }
+
+        Path cacheDir = Paths.get(TestConfig.driverCacheDir());
+        Path cached = cacheDir.resolve(major).resolve(WINDOWS ? "chromedriver.exe" : "chromedriver");
+        try {
+            Files.createDirectories(cacheDir);
+            try (FileChannel channel = FileChannel.open(cacheDir.resolve(major + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                // Held across the download, so parallel JVMs fetch each version once
+                FileLock lock = channel.lock();
+                try {
+                    if (Files.isExecutable(cached)) {
+                        System.out.println("Using cached chromedriver for Chrome " + major + ": " + cached);
+                        return useDriver(cached);
+                    }
+                    Path downloaded = download(major);
+                    Files.createDirectories(cached.getParent());
+                    Path temp = Files.createTempFile(cached.getParent(), "chromedriver", ".tmp");
+                    Files.copy(downloaded, temp, StandardCopyOption.REPLACE_EXISTING);
+                    temp.toFile().setExecutable(true);
+                    Files.move(temp, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    System.out.println("Cached chromedriver for Chrome " + major + ": " + cached);
+                    return useDriver(cached);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to use chromedriver cache " + cacheDir.toAbsolutePath()
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Detects the major version of the installed Chrome.
+     * -Dbtcbit.chrome.version overrides the detection.
+     * @return major version such as "120", or null if Chrome was not found
+     */
+    public static String chromeMajorVersion() {
+        String configured = TestConfig.getString(TestConfig.CHROME_VERSION, null);
+        if (configured != null) {
+            return configured.split("\\.")[0];
+        }
+        for (List<String> command : versionCommands()) {
+            String output = run(command);
+            if (output != null) {
+                Matcher matcher = VERSION.matcher(output);
+                if (matcher.find()) {
+                    return matcher.group(1);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Path download(String major) {
+        try {
+            WebDriverManager manager = WebDriverManager.chromedriver();
+            if (major != null) {
+                manager.browserVersion(major);
+            }
+            manager.setup();
+            return Paths.get(manager.getDownloadedDriverPath());
+        } catch (Exception e) {
+            throw new IllegalStateException("No cached chromedriver" + (major == null ? "" : " for Chrome " + major)
+                    + " in " + Paths.get(TestConfig.driverCacheDir()).toAbsolutePath()
+                    + " and WebDriverManager could not provide one: " + e.getMessage(), e);
+        }
+    }
+
+    private static Path useDriver(Path driver) {
+        System.setProperty(DRIVER_PROPERTY, driver.toAbsolutePath().toString());
+        return driver;
+    }
+
+    private static List<List<String>> versionCommands() {
+        List<List<String>> commands = new ArrayList<>();
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.ROOT);
+        if (WINDOWS) {
+            commands.add(Arrays.asList("reg", "query", "HKEY_CURRENT_USER\\Software\\Google\\Chrome\\BLBeacon",
+                    "/v", "version"));
+            commands.add(Arrays.asList("reg", "query",
+                    "HKEY_LOCAL_MACHINE\\SOFTWARE\\Wow6432Node\\Microsoft\\Windows\\CurrentVersion\\Uninstall\\Google Chrome",
+                    "/v", "DisplayVersion"));
+        } else if (os.contains("mac")) {
+            commands.add(Arrays.asList("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome", "--version"));
+        } else {
+            for (String binary : new String[] {"google-chrome", "google-chrome-stable", "chromium", "chromium-browser"}) {
+                commands.add(Arrays.asList(binary, "--version"));
+            }
+        }
+        return commands;
+    }
+
+    private static String run(List<String> command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append('\n');
+                }
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return null;
+            }
+            return process.exitValue() == 0 ? output.toString() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
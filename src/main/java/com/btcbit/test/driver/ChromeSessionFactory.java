@@ -0,0 +1,103 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Creates Chrome sessions against one long-lived chromedriver process.
+ * The {@link ChromeDriverService} is started on the first session and stopped by {@link #close()};
+ * quitting a session only ends that browser.
+ * Service start, browser launch and the first navigation of every session are timed into {@link LaunchStats}.
+ */
+public class ChromeSessionFactory implements Supplier<WebDriver>, AutoCloseable {
+    private final LaunchProfile profile;
+    private ChromeDriverService service;
+
+    /**
+     * @param profile options every session is started with
+     */
+    public ChromeSessionFactory(LaunchProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Starts a new browser session on the shared service
+     * @return driver that reports its first navigation time
+     */
+    @Override
+    public WebDriver get() {
+        ChromeDriverService running = service();
+        long start = System.nanoTime();
+        ChromeDriver driver = new ChromeDriver(running, profile.options());
+        LaunchStats.getInstance().record(profile, LaunchPhase.BROWSER_LAUNCH, elapsedMs(start));
+        return new EventFiringDecorator<WebDriver>(new FirstNavigationTimer(profile)).decorate(driver);
+    }
+
+    public LaunchProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Stops the shared chromedriver process; sessions must be quit before
+     */
+    @Override
+    public synchronized void close() {
+        if (service != null) {
+            service.stop();
+            service = null;
+        }
+    }
+
+    private synchronized ChromeDriverService service() {
+        if (service == null || !service.isRunning()) {
+            long start = System.nanoTime();
+            ChromeDriverService created = ChromeDriverService.createDefaultService();
+            try {
+                created.start();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to start chromedriver: " + e.getMessage(), e);
+            }
+            LaunchStats.getInstance().record(profile, LaunchPhase.SERVICE_START, elapsedMs(start));
+            service = created;
+        }
+        return service;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Times the first driver.get() of one session
+     */
+    private static class FirstNavigationTimer implements WebDriverListener {
+        private final LaunchProfile profile;
+        private final AtomicBoolean measured = new AtomicBoolean();
+        private volatile long start;
+
+        FirstNavigationTimer(LaunchProfile profile) {
+            this.profile = profile;
+        }
+
+        @Override
+        public void beforeGet(WebDriver driver, String url) {
+            if (!measured.get() && !"about:blank".equals(url)) {
+                start = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void afterGet(WebDriver driver, String url) {
+            if (start != 0 && measured.compareAndSet(false, true)) {
+                LaunchStats.getInstance().record(profile, LaunchPhase.FIRST_NAVIGATION, elapsedMs(start));
+            }
+        }
+    }
+}
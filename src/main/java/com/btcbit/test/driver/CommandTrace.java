@@ -0,0 +1,118 @@
+package com.btcbit.test.driver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * WebDriver commands issued by one test, with count and time per command.
+ * Commands issued while a wait polls again are kept apart and not part of the totals.
+ * A trace is filled by a single test thread.
+ */
+public class CommandTrace {
+    private final Map<String, long[]> commands = new TreeMap<>();
+    private final Map<String, long[]> waitPolls = new TreeMap<>();
+    private long totalCount;
+    private long totalNanos;
+    private long waitPollCount;
+
+    void record(String command, long nanos) {
+        long[] entry = commands.computeIfAbsent(command, key -> new long[2]);
+        entry[0]++;
+        entry[1] += nanos;
+        totalCount++;
+        totalNanos += nanos;
+    }
+
+    void recordWaitPoll(String command, long nanos) {
+        long[] entry = waitPolls.computeIfAbsent(command, key -> new long[2]);
+        entry[0]++;
+        entry[1] += nanos;
+        waitPollCount++;
+    }
+
+    /**
+     * Adds the commands of a poll that was traced on its own
+     * @param poll trace of the poll
+     * @param counted true if the poll's commands count like any other, false to add them as wait polls
+     */
+    void addAll(CommandTrace poll, boolean counted) {
+        merge(poll.commands, counted ? commands : waitPolls);
+        merge(poll.waitPolls, waitPolls);
+        if (counted) {
+            totalCount += poll.totalCount;
+            totalNanos += poll.totalNanos;
+        } else {
+            waitPollCount += poll.totalCount;
+        }
+        waitPollCount += poll.waitPollCount;
+    }
+
+    /**
+     * @return number of commands outside waits, the part a test's command budget covers
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public long getTotalMillis() {
+        return totalNanos / 1_000_000;
+    }
+
+    /**
+     * @return number of commands issued by waits while they polled
+     */
+    public long getWaitPollCount() {
+        return waitPollCount;
+    }
+
+    /**
+     * @return number of calls per command outside waits, e.g. "WebElement.getText"
+     */
+    public Map<String, Long> getCounts() {
+        return countsOf(commands);
+    }
+
+    /**
+     * @return number of calls per command issued by waits
+     */
+    public Map<String, Long> getWaitPollCounts() {
+        return countsOf(waitPolls);
+    }
+
+    /**
+     * @return one line per command, most frequent first, then one per wait-poll command
+     */
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        describe(commands, "", lines);
+        describe(waitPolls, " (wait poll)", lines);
+        return lines;
+    }
+
+    private static void merge(Map<String, long[]> from, Map<String, long[]> into) {
+        for (Map.Entry<String, long[]> entry : from.entrySet()) {
+            long[] target = into.computeIfAbsent(entry.getKey(), key -> new long[2]);
+            target[0] += entry.getValue()[0];
+            target[1] += entry.getValue()[1];
+        }
+    }
+
+    private static Map<String, Long> countsOf(Map<String, long[]> entries) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, long[]> entry : entries.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return counts;
+    }
+
+    private static void describe(Map<String, long[]> entries, String suffix, List<String> lines) {
+        List<Map.Entry<String, long[]>> sorted = new ArrayList<>(entries.entrySet());
+        sorted.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        for (Map.Entry<String, long[]> entry : sorted) {
+            lines.add(String.format("%-40s %6d calls %8d ms", entry.getKey() + suffix, entry.getValue()[0],
+                    entry.getValue()[1] / 1_000_000));
+        }
+    }
+}
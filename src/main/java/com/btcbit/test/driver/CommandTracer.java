@@ -0,0 +1,147 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Decorator that counts and times every WebDriver command of the driver, its elements,
+ * windows, navigation and alerts.
+ * Commands are recorded into the trace of the calling thread between {@link #start()} and
+ * {@link #stop()}; pooled drivers are confined to one test thread, so that is the test's trace.
+ * Commands a wait issues when it polls again, inside {@link #polling(Supplier)}, are recorded apart
+ * from the others: how often a wait polls depends on how fast the page is, not on the test.
+ * The first poll of every wait is what the test needs at least and counts like any command.
+ */
+public class CommandTracer extends WebDriverDecorator<WebDriver> {
+    private static final ThreadLocal<CommandTrace> TRACE = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> POLLING = ThreadLocal.withInitial(() -> false);
+
+    // Accessors that only hand out another decorated object and never reach chromedriver,
+    // per interface: WebDriver.Options#window is local, but TargetLocator#window switches windows
+    private static final Map<Class<?>, Set<String>> LOCAL_ACCESSORS = new LinkedHashMap<>();
+    // Methods of the decorator itself or of Object, local on every type
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "getWrappedDriver", "getWrappedElement", "equals", "hashCode", "toString"));
+
+    static {
+        LOCAL_ACCESSORS.put(WebDriver.class, new HashSet<>(Arrays.asList("manage", "navigate", "switchTo")));
+        LOCAL_ACCESSORS.put(WebDriver.Options.class, new HashSet<>(Arrays.asList("timeouts", "window", "logs")));
+    }
+
+    /**
+     * @param driver driver to trace
+     * @return traced driver
+     */
+    public static WebDriver trace(WebDriver driver) {
+        return new CommandTracer().decorate(driver);
+    }
+
+    /**
+     * Starts a new trace for the current thread
+     */
+    public static void start() {
+        TRACE.set(new CommandTrace());
+    }
+
+    /**
+     * Ends the trace of the current thread
+     * @return commands recorded since {@link #start()}, or an empty trace if none was started
+     */
+    public static CommandTrace stop() {
+        CommandTrace trace = TRACE.get();
+        TRACE.remove();
+        return trace == null ? new CommandTrace() : trace;
+    }
+
+    /**
+     * Runs a wait; the commands it issues are recorded as wait polls
+     * @param body wait to run
+     * @return the wait's result
+     */
+    public static <T> T polling(Supplier<T> body) {
+        boolean outer = POLLING.get();
+        POLLING.set(true);
+        try {
+            return body.get();
+        } finally {
+            POLLING.set(outer);
+        }
+    }
+
+    /**
+     * Runs a repeated poll of a wait. Its commands count like any other if it produced the
+     * result, since that poll also does the work the test waited for; otherwise they are wait polls.
+     * @param poll poll to run
+     * @return the poll's result, null while the wait goes on
+     */
+    public static <T> T repoll(Supplier<T> poll) {
+        CommandTrace trace = TRACE.get();
+        if (trace == null || POLLING.get()) {
+            return poll.get();
+        }
+        CommandTrace pollTrace = new CommandTrace();
+        TRACE.set(pollTrace);
+        T result = null;
+        try {
+            result = poll.get();
+            return result;
+        } finally {
+            TRACE.set(trace);
+            trace.addAll(pollTrace, result != null);
+        }
+    }
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        CommandTrace trace = TRACE.get();
+        if (trace == null || isLocal(target, method)) {
+            return super.call(target, method, args);
+        }
+        boolean waitPoll = POLLING.get();
+        long start = System.nanoTime();
+        try {
+            return super.call(target, method, args);
+        } finally {
+            String command = ownerOf(target, method) + "." + method.getName();
+            if (waitPoll) {
+                trace.recordWaitPoll(command, System.nanoTime() - start);
+            } else {
+                trace.record(command, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static boolean isLocal(Decorated<?> target, Method method) {
+        if (LOCAL_METHODS.contains(method.getName())) {
+            return true;
+        }
+        Object original = target.getOriginal();
+        for (Map.Entry<Class<?>, Set<String>> accessors : LOCAL_ACCESSORS.entrySet()) {
+            if (accessors.getKey().isInstance(original) && accessors.getValue().contains(method.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String ownerOf(Decorated<?> target, Method method) {
+        Object original = target.getOriginal();
+        if (original instanceof WebElement) {
+            return "WebElement";
+        }
+        if (original instanceof WebDriver) {
+            return "WebDriver";
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+}
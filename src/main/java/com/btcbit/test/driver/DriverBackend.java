@@ -0,0 +1,37 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Engine a test's page objects run on
+ */
+public enum DriverBackend {
+    /** Real Chrome through chromedriver, for flows that need JavaScript, layout or DevTools */
+    CHROME,
+    /**
+     * In-JVM HtmlUnit with JavaScript off. Starts in milliseconds with a fraction of a browser's
+     * memory, for checks on server-rendered HTML and plain link navigation
+     */
+    HTMLUNIT;
+
+    /**
+     * Detects the backend of a session, also through decorators
+     * @param driver session to inspect
+     * @return HTMLUNIT for HtmlUnit sessions, CHROME otherwise
+     */
+    public static DriverBackend of(WebDriver driver) {
+        if (driver instanceof HasCapabilities
+                && "htmlunit".equalsIgnoreCase(((HasCapabilities) driver).getCapabilities().getBrowserName())) {
+            return HTMLUNIT;
+        }
+        return CHROME;
+    }
+
+    /**
+     * @return true if sessions of this backend run page scripts and {@code executeScript}
+     */
+    public boolean supportsJavaScript() {
+        return this == CHROME;
+    }
+}
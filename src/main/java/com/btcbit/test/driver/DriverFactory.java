@@ -0,0 +1,96 @@
+package com.btcbit.test.driver;
+
+import org.htmlunit.BrowserVersion;
+import org.htmlunit.Page;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out sessions of either {@link DriverBackend}.
+ * chromedriver is resolved and started only when the first Chrome session is requested,
+ * so a run that needs no real browser never launches one.
+ */
+public class DriverFactory implements AutoCloseable {
+    private final LaunchProfile chromeProfile;
+    private final Map<DriverBackend, AtomicInteger> created = new EnumMap<>(DriverBackend.class);
+    private ChromeSessionFactory chromeSessions;
+
+    /**
+     * @param chromeProfile options every Chrome session is started with
+     */
+    public DriverFactory(LaunchProfile chromeProfile) {
+        this.chromeProfile = chromeProfile;
+        for (DriverBackend backend : DriverBackend.values()) {
+            created.put(backend, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Starts a new session
+     * @param backend engine of the session
+     * @return new driver
+     */
+    public WebDriver create(DriverBackend backend) {
+        WebDriver driver;
+        if (backend == DriverBackend.HTMLUNIT) {
+            driver = new HtmlUnitSession();
+        } else {
+            driver = chromeSessions().get();
+        }
+        created.get(backend).incrementAndGet();
+        return driver;
+    }
+
+    /**
+     * @param backend engine of the sessions
+     * @return number of sessions started on that backend
+     */
+    public int getCreatedCount(DriverBackend backend) {
+        return created.get(backend).get();
+    }
+
+    /**
+     * Stops chromedriver if it was started; sessions must be quit before
+     */
+    @Override
+    public synchronized void close() {
+        if (chromeSessions != null) {
+            chromeSessions.close();
+            chromeSessions = null;
+        }
+        System.out.println("Sessions started: " + getCreatedCount(DriverBackend.CHROME) + " Chrome, "
+                + getCreatedCount(DriverBackend.HTMLUNIT) + " HtmlUnit");
+    }
+
+    private synchronized ChromeSessionFactory chromeSessions() {
+        if (chromeSessions == null) {
+            // Cached chromedriver for the installed Chrome; WebDriverManager only on a cache miss
+            ChromeDriverResolver.resolve();
+            chromeSessions = new ChromeSessionFactory(chromeProfile);
+        }
+        return chromeSessions;
+    }
+
+    /**
+     * HtmlUnit without JavaScript. Its page source is the HTML as served, which without scripts
+     * is the DOM, rather than HtmlUnit's re-indented serialization that breaks text matches
+     */
+    private static class HtmlUnitSession extends HtmlUnitDriver {
+        HtmlUnitSession() {
+            super(BrowserVersion.CHROME, false);
+        }
+
+        @Override
+        public String getPageSource() {
+            Page page = getWebClient().getCurrentWindow().getEnclosedPage();
+            if (page == null || page.getWebResponse() == null) {
+                return super.getPageSource();
+            }
+            return page.getWebResponse().getContentAsString();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.btcbit.test.driver;
+
+/**
+ * Steps of getting a browser ready for the first page of a test
+ */
+public enum LaunchPhase {
+    /** Starting the shared chromedriver process; happens once per run */
+    SERVICE_START,
+    /** Creating a session, which launches Chrome */
+    BROWSER_LAUNCH,
+    /** The first driver.get() of a new session */
+    FIRST_NAVIGATION
+}
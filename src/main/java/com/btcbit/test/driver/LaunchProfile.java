@@ -0,0 +1,47 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+/**
+ * Chrome options used to start a browser session, selected with -Dbtcbit.launch.profile
+ */
+public enum LaunchProfile {
+    /** Visible browser with the options the suite always used */
+    DEFAULT {
+        @Override
+        public ChromeOptions options() {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--window-size=1920,1080");
+            options.addArguments("--start-maximized");
+            options.addArguments("--disable-notifications");
+            return options;
+        }
+    },
+    /**
+     * Headless browser without extensions, sync and background networking;
+     * navigations return once the DOM is ready instead of after the load event
+     */
+    FAST {
+        @Override
+        public ChromeOptions options() {
+            ChromeOptions options = new ChromeOptions();
+            options.addArguments("--headless=new");
+            options.addArguments("--window-size=1920,1080");
+            options.addArguments("--disable-notifications");
+            options.addArguments("--disable-extensions");
+            options.addArguments("--disable-sync");
+            options.addArguments("--disable-background-networking");
+            options.addArguments("--disable-default-apps");
+            options.addArguments("--disable-component-update");
+            options.addArguments("--no-first-run");
+            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            return options;
+        }
+    };
+
+    /**
+     * @return new options for one session
+     */
+    public abstract ChromeOptions options();
+}
@@ -0,0 +1,122 @@
+package com.btcbit.test.driver;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.support.PersistedStats;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Launch timings per {@link LaunchProfile} and {@link LaunchPhase}, accumulated across runs
+ * so that profiles used in different runs can be compared.
+ */
+public class LaunchStats extends PersistedStats {
+    private static final Shared<LaunchStats> SHARED =
+            new Shared<>(() -> new LaunchStats(Paths.get(TestConfig.launchStatsFile())));
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> totalMs = new ConcurrentHashMap<>();
+
+    /**
+     * @param file properties file the timings are loaded from and saved to
+     */
+    public LaunchStats(Path file) {
+        super(file, "launch statistics");
+        load();
+    }
+
+    /**
+     * Returns the shared statistics backed by {@link TestConfig#launchStatsFile()}.
+     * They are saved automatically when the JVM exits.
+     * @return shared statistics
+     */
+    public static LaunchStats getInstance() {
+        return SHARED.get();
+    }
+
+    /**
+     * Adds one measurement
+     * @param profile launch profile in use
+     * @param phase measured phase
+     * @param millis duration in milliseconds
+     */
+    public void record(LaunchProfile profile, LaunchPhase phase, long millis) {
+        String key = profile.name() + "." + phase.name();
+        System.out.println("Launch " + key + ": " + millis + " ms");
+        totalMs.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(millis);
+        counts.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * @param profile launch profile
+     * @param phase phase
+     * @return average duration in milliseconds, or -1 if never measured
+     */
+    public long getAverageMs(LaunchProfile profile, LaunchPhase phase) {
+        String key = profile.name() + "." + phase.name();
+        AtomicLong count = counts.get(key);
+        if (count == null || count.get() == 0) {
+            return -1;
+        }
+        return totalMs.get(key).get() / count.get();
+    }
+
+    public void printStatistics() {
+        System.out.println("Average launch times (ms):");
+        for (LaunchProfile profile : LaunchProfile.values()) {
+            StringBuilder line = new StringBuilder("  " + profile.name() + ":");
+            boolean measured = false;
+            for (LaunchPhase phase : LaunchPhase.values()) {
+                long average = getAverageMs(profile, phase);
+                if (average >= 0) {
+                    measured = true;
+                    line.append(' ').append(phase.name()).append('=').append(average);
+                    long baseline = getAverageMs(LaunchProfile.DEFAULT, phase);
+                    if (profile != LaunchProfile.DEFAULT && baseline >= 0) {
+                        line.append(" (").append(average - baseline >= 0 ? "+" : "")
+                                .append(average - baseline).append(')');
+                    }
+                }
+            }
+            if (measured) {
+                System.out.println(line);
+            }
+        }
+    }
+
+    @Override
+    protected Properties write() {
+        if (counts.isEmpty()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, AtomicLong> count : new TreeMap<>(counts).entrySet()) {
+            properties.setProperty(count.getKey() + ".count", String.valueOf(count.getValue().get()));
+            properties.setProperty(count.getKey() + ".totalMs", String.valueOf(totalMs.get(count.getKey()).get()));
+        }
+        return properties;
+    }
+
+    @Override
+    protected void read(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".count")) {
+                continue;
+            }
+            String prefix = key.substring(0, key.length() - ".count".length());
+            try {
+                long count = Long.parseLong(properties.getProperty(key));
+                long total = Long.parseLong(properties.getProperty(prefix + ".totalMs", "0"));
+                counts.put(prefix, new AtomicLong(count));
+                totalMs.put(prefix, new AtomicLong(total));
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring invalid launch statistics entry " + prefix);
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.btcbit.test.driver;
+
+import com.btcbit.test.config.TestConfig;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resets a browser session to a clean state so it can be reused by the next test
+ * instead of paying for a new Chrome and chromedriver start-up.
+ */
+public class SessionRecycler {
+    private static final String BLANK_PAGE = "about:blank";
+    // Cheapest page of the site's origin to clear its storage from
+    private static final String SITE_STORAGE_PAGE = "/robots.txt";
+
+    private final int maxReuses;
+    private final AtomicInteger launches = new AtomicInteger();
+    private final AtomicInteger reuses = new AtomicInteger();
+    private final AtomicInteger resetFailures = new AtomicInteger();
+    private final AtomicInteger retirements = new AtomicInteger();
+
+    /**
+     * @param maxReuses number of times a session may be handed out again before it is quit
+     */
+    public SessionRecycler(int maxReuses) {
+        this.maxReuses = maxReuses;
+    }
+
+    /**
+     * Decides whether a session that has been used the given number of times may be reused
+     * @param uses number of tests the session has already served
+     * @return true if the session may be reset and kept
+     */
+    public boolean canReuse(int uses) {
+        if (uses > maxReuses) {
+            retirements.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Closes extra tabs, clears cookies, the web storage of the current page and of the site, and loads about:blank
+     * @param driver session to reset
+     * @return true if the session is clean and can be reused, false if it must be quit
+     */
+    public boolean reset(WebDriver driver) {
+        try {
+            closeExtraWindows(driver);
+            clearWebStorage(driver);
+            clearSiteStorage(driver);
+            clearCookies(driver);
+            driver.get(BLANK_PAGE);
+
+            boolean clean = driver.getWindowHandles().size() == 1
+                    && BLANK_PAGE.equals(driver.getCurrentUrl());
+            if (!clean) {
+                resetFailures.incrementAndGet();
+            }
+            return clean;
+        } catch (Exception e) {
+            System.out.println("Failed to reset browser session: " + e.getMessage());
+            resetFailures.incrementAndGet();
+            return false;
+        }
+    }
+
+    void recordLaunch() {
+        launches.incrementAndGet();
+    }
+
+    void recordReuse() {
+        reuses.incrementAndGet();
+    }
+
+    public int getLaunches() {
+        return launches.get();
+    }
+
+    /**
+     * @return number of browser launches saved by handing out a recycled session
+     */
+    public int getLaunchesAvoided() {
+        return reuses.get();
+    }
+
+    public int getResetFailures() {
+        return resetFailures.get();
+    }
+
+    public int getRetirements() {
+        return retirements.get();
+    }
+
+    public String getStatistics() {
+        return "Browser launches: " + getLaunches()
+                + ", launches avoided: " + getLaunchesAvoided()
+                + ", failed resets: " + getResetFailures()
+                + ", sessions retired after " + maxReuses + " reuses: " + getRetirements();
+    }
+
+    private void closeExtraWindows(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        if (handles.isEmpty()) {
+            return;
+        }
+        String keep = handles.get(0);
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(keep);
+    }
+
+    private void clearWebStorage(WebDriver driver) {
+        // Storage is per origin, so it has to be cleared before leaving the page
+        try {
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); } catch (e) {}"
+                    + "try { window.sessionStorage.clear(); } catch (e) {}");
+        } catch (Exception e) {
+            System.out.println("Failed to clear web storage: " + e.getMessage());
+        }
+    }
+
+    private void clearSiteStorage(WebDriver driver) {
+        // The surviving window may be on another origin, while the storage AuthSessionCache restored
+        // belongs to the site; session storage is per tab and origin, so it is cleared from the site's origin
+        String site = originOf(TestConfig.baseUrl());
+        if (site.equals(originOf(driver.getCurrentUrl()))) {
+            return;
+        }
+        driver.get(site + SITE_STORAGE_PAGE);
+        clearWebStorage(driver);
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getAuthority();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    private void clearCookies(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            // Clears cookies of every domain, not only the current one
+            ((HasCdp) driver).executeCdpCommand("Network.clearBrowserCookies", Collections.emptyMap());
+        } else {
+            driver.manage().deleteAllCookies();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * WebDriverWait whose first poll counts against a test's command budget like any command,
+ * while the polls after it are recorded as wait polls by {@link CommandTracer}
+ */
+public class TracedWait extends WebDriverWait {
+
+    /**
+     * @param driver driver to poll
+     * @param timeout maximum wait
+     * @param pollInterval pause between two polls
+     */
+    public TracedWait(WebDriver driver, Duration timeout, Duration pollInterval) {
+        super(driver, timeout, pollInterval);
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        AtomicBoolean first = new AtomicBoolean(true);
+        return super.until(driver -> first.getAndSet(false)
+                ? isTrue.apply(driver)
+                : CommandTracer.polling(() -> isTrue.apply(driver)));
+    }
+}
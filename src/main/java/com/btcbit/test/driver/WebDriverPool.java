@@ -0,0 +1,196 @@
+package com.btcbit.test.driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of WebDriver sessions for parallel test execution.
+ * Each worker thread borrows its own driver with {@link #acquire()} and gives it back
+ * with {@link #release()}; the driver stays confined to that thread in between.
+ * When a {@link SessionRecycler} is configured, released sessions are reset and kept
+ * for the next test instead of being quit.
+ */
+public class WebDriverPool implements AutoCloseable {
+    private final Supplier<WebDriver> driverFactory;
+    private final SessionRecycler recycler;
+    private final Consumer<WebDriver> beforeQuit;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final ThreadLocal<PooledSession> current = new ThreadLocal<>();
+    private final Set<PooledSession> active = ConcurrentHashMap.newKeySet();
+    private final Deque<PooledSession> idle = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool that quits every driver on release
+     * @param driverFactory creates a new configured driver
+     * @param maxSize maximum number of drivers alive at the same time
+     */
+    public WebDriverPool(Supplier<WebDriver> driverFactory, int maxSize) {
+        this(driverFactory, maxSize, null);
+    }
+
+    /**
+     * @param driverFactory creates a new configured driver
+     * @param maxSize maximum number of drivers alive at the same time
+     * @param recycler resets released sessions for reuse, or null to quit them
+     */
+    public WebDriverPool(Supplier<WebDriver> driverFactory, int maxSize, SessionRecycler recycler) {
+        this(driverFactory, maxSize, recycler, driver -> { });
+    }
+
+    /**
+     * @param driverFactory creates a new configured driver
+     * @param maxSize maximum number of drivers alive at the same time
+     * @param recycler resets released sessions for reuse, or null to quit them
+     * @param beforeQuit releases what was attached to a session, called right before it is quit
+     */
+    public WebDriverPool(Supplier<WebDriver> driverFactory, int maxSize, SessionRecycler recycler,
+                         Consumer<WebDriver> beforeQuit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1, was " + maxSize);
+        }
+        this.driverFactory = driverFactory;
+        this.recycler = recycler;
+        this.beforeQuit = beforeQuit;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a driver for the current thread, blocking while the pool is exhausted.
+     * Calling it again on the same thread returns the already bound driver.
+     * @return driver bound to the current thread
+     */
+    public WebDriver acquire() {
+        PooledSession bound = current.get();
+        if (bound != null) {
+            return bound.driver;
+        }
+        if (closed) {
+            throw new IllegalStateException("WebDriver pool is closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free WebDriver", e);
+        }
+
+        PooledSession session = idle.pollFirst();
+        if (session != null) {
+            if (recycler != null) {
+                recycler.recordReuse();
+            }
+        } else {
+            try {
+                session = new PooledSession(driverFactory.get());
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            if (recycler != null) {
+                recycler.recordLaunch();
+            }
+        }
+        session.uses++;
+        active.add(session);
+        current.set(session);
+        return session.driver;
+    }
+
+    /**
+     * Returns the driver bound to the current thread
+     * @return bound driver
+     * @throws IllegalStateException if the thread has not acquired a driver
+     */
+    public WebDriver current() {
+        PooledSession bound = current.get();
+        if (bound == null) {
+            throw new IllegalStateException("No WebDriver is bound to thread " + Thread.currentThread().getName());
+        }
+        return bound.driver;
+    }
+
+    /**
+     * Gives the current thread's driver back to the pool.
+     * The session is kept for reuse if it could be reset, otherwise the browser is quit.
+     */
+    public void release() {
+        PooledSession session = current.get();
+        if (session == null) {
+            return;
+        }
+        current.remove();
+        try {
+            if (!closed && recycler != null && recycler.canReuse(session.uses) && recycler.reset(session.driver)) {
+                idle.offerFirst(session);
+            } else {
+                quitQuietly(session.driver);
+            }
+        } finally {
+            active.remove(session);
+            permits.release();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Quits every driver that is still alive and refuses further acquisitions
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            quitQuietly(session.driver);
+        }
+        for (PooledSession activeSession : active) {
+            quitQuietly(activeSession.driver);
+        }
+        active.clear();
+        if (recycler != null) {
+            System.out.println(recycler.getStatistics());
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            beforeQuit.accept(driver);
+        } catch (Exception e) {
+            System.out.println("Failed to release WebDriver resources: " + e.getMessage());
+        }
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            System.out.println("Failed to quit WebDriver: " + e.getMessage());
+        }
+    }
+
+    private static class PooledSession {
+        private final WebDriver driver;
+        private int uses;
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.btcbit.test.http;
+
+import com.btcbit.test.support.PageSnapshot;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Browser-free lane for pages whose checks only need server-rendered HTML.
+ * Pages are fetched with {@link HttpClient} and parsed into {@link PageSnapshot}s,
+ * so the same {@link com.btcbit.test.support.DomCheck}s the page objects define can run
+ * without launching Chrome. One client can serve many concurrent tests.
+ */
+public class StaticPageClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(15);
+    private static final String USER_AGENT = "Mozilla/5.0 (compatible; btcbit-static-checks)";
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+
+    /**
+     * @param baseUrl origin of the site, e.g. https://btcbit.net or a local stand-in server
+     */
+    public StaticPageClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Fetches and parses a page
+     * @param path path relative to the base URL, e.g. "/contacts/"
+     * @return snapshot of the server-rendered page
+     * @throws IllegalStateException if the page cannot be fetched or does not answer 200
+     */
+    public PageSnapshot fetch(String path) {
+        try {
+            return fetchAsync(path).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof IllegalStateException) {
+                throw (IllegalStateException) cause;
+            }
+            throw new IllegalStateException("Failed to fetch " + baseUrl + path + ": " + cause, cause);
+        }
+    }
+
+    /**
+     * Fetches and parses a page without blocking the caller
+     * @param path path relative to the base URL
+     * @return future snapshot of the server-rendered page
+     */
+    public CompletableFuture<PageSnapshot> fetchAsync(String path) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "text/html")
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("GET " + request.uri() + " returned " + response.statusCode());
+                    }
+                    return PageSnapshot.parse(response.body(), response.uri().toString());
+                });
+    }
+
+    /**
+     * Fetches several pages concurrently
+     * @param paths paths relative to the base URL
+     * @return snapshots keyed by path, in the order of the paths
+     */
+    public Map<String, PageSnapshot> fetchAll(List<String> paths) {
+        List<CompletableFuture<PageSnapshot>> futures = new ArrayList<>();
+        for (String path : paths) {
+            futures.add(fetchAsync(path));
+        }
+        Map<String, PageSnapshot> snapshots = new LinkedHashMap<>();
+        for (int i = 0; i < paths.size(); i++) {
+            try {
+                snapshots.put(paths.get(i), futures.get(i).join());
+            } catch (CompletionException e) {
+                throw new IllegalStateException("Failed to fetch " + baseUrl + paths.get(i), e.getCause());
+            }
+        }
+        return snapshots;
+    }
+}
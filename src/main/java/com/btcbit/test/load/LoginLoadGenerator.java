@@ -0,0 +1,281 @@
+package com.btcbit.test.load;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.driver.ChromeDriverResolver;
+import com.btcbit.test.driver.ChromeSessionFactory;
+import com.btcbit.test.driver.LaunchProfile;
+import com.btcbit.test.pages.LoginPage;
+import com.btcbit.test.pages.ProfilePage;
+import com.btcbit.test.standin.StandInServer;
+import com.btcbit.test.support.LatencyHistogram;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the sign-in endpoint with concurrent headless sessions through {@link LoginPage}.
+ * Sessions start evenly staggered over the ramp-up period, then every session alternates
+ * between the failed-login and the successful-login flow until the steady state ends.
+ * Only attempts that finish within the steady state are reported, as throughput and as
+ * submit-to-error and submit-to-profile latency percentiles.
+ *
+ * <p>Refuses to target anything but the local machine unless -Dbtcbit.load.allowRemote=true,
+ * so it is normally pointed at the stand-in server with -Dbtcbit.standin=true.
+ */
+public class LoginLoadGenerator {
+    private final int users;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final Duration thinkTime;
+    private final Map<Flow, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final Map<Flow, AtomicLong> failures = new LinkedHashMap<>();
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private ChromeSessionFactory sessions;
+    private long steadyStart;
+    private long steadyEnd;
+
+    /**
+     * Login flows a load session repeats
+     */
+    enum Flow {
+        FAILED_LOGIN("submit-to-error"),
+        SUCCESSFUL_LOGIN("submit-to-profile");
+
+        private final String metric;
+
+        Flow(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    /**
+     * @param users number of concurrent sessions
+     * @param rampUp time over which the sessions are started
+     * @param duration steady-state period that is measured
+     * @param thinkTime pause between two attempts of a session
+     */
+    public LoginLoadGenerator(int users, Duration rampUp, Duration duration, Duration thinkTime) {
+        this.users = users;
+        this.rampUp = rampUp;
+        this.duration = duration;
+        this.thinkTime = thinkTime;
+        for (Flow flow : Flow.values()) {
+            latencies.put(flow, new LatencyHistogram());
+            failures.put(flow, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StandInServer.startIfEnabled();
+        if (!isLocalTarget(TestConfig.baseUrl()) && !TestConfig.loadAllowRemote()) {
+            System.out.println("Refusing to generate load against " + TestConfig.baseUrl()
+                    + ". Use -Dbtcbit.standin=true, a local -Dbtcbit.baseUrl, or -Dbtcbit.load.allowRemote=true");
+            System.exit(2);
+        }
+        ChromeDriverResolver.resolve();
+
+        LoginLoadGenerator generator = new LoginLoadGenerator(TestConfig.loadUsers(), TestConfig.loadRampUp(),
+                TestConfig.loadDuration(), TestConfig.loadThinkTime());
+        generator.run();
+        generator.printReport();
+        generator.writeReport(Paths.get(TestConfig.perfReportDir()));
+        System.exit(0);
+    }
+
+    /**
+     * Runs the ramp-up and the steady state, returning once every session has finished
+     * @throws InterruptedException if interrupted while waiting for the sessions
+     */
+    public void run() throws InterruptedException {
+        System.out.println("Generating login load against " + TestConfig.baseUrl() + ": " + users
+                + " sessions, " + rampUp.getSeconds() + "s ramp-up, " + duration.getSeconds() + "s steady state");
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(users, runnable -> {
+            Thread thread = new Thread(runnable, "login-load-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ChromeSessionFactory factory = new ChromeSessionFactory(LaunchProfile.FAST)) {
+            sessions = factory;
+            long start = System.nanoTime();
+            steadyStart = start + rampUp.toNanos();
+            steadyEnd = steadyStart + duration.toNanos();
+            for (int i = 0; i < users; i++) {
+                long startAt = start + rampUp.toNanos() * i / users;
+                // Half of the sessions begin with the failed login so both flows overlap from the start
+                Flow first = i % 2 == 0 ? Flow.FAILED_LOGIN : Flow.SUCCESSFUL_LOGIN;
+                executor.submit(() -> runSession(startAt, first));
+            }
+            executor.shutdown();
+            if (!executor.awaitTermination(rampUp.plus(duration).plusMinutes(5).toMillis(), TimeUnit.MILLISECONDS)) {
+                System.out.println("Load sessions did not finish in time, stopping them");
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private void runSession(long startAt, Flow first) {
+        sleepNanos(startAt - System.nanoTime());
+        WebDriver driver = null;
+        try {
+            driver = sessions.get();
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            System.out.println("Load session started, " + activeSessions.incrementAndGet() + " of " + users + " active");
+
+            LoginPage loginPage = new LoginPage(driver);
+            String profileUrl = new ProfilePage(driver).getUrl();
+            Flow flow = first;
+            while (System.nanoTime() < steadyEnd && !Thread.currentThread().isInterrupted()) {
+                attempt(driver, loginPage, profileUrl, flow);
+                flow = flow == Flow.FAILED_LOGIN ? Flow.SUCCESSFUL_LOGIN : Flow.FAILED_LOGIN;
+                sleepNanos(thinkTime.toNanos());
+            }
+        } catch (Exception e) {
+            System.out.println("Load session failed: " + e.getMessage());
+        } finally {
+            if (driver != null) {
+                try {
+                    driver.quit();
+                } catch (Exception e) {
+                    System.out.println("Failed to quit load session: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void attempt(WebDriver driver, LoginPage loginPage, String profileUrl, Flow flow) {
+        boolean succeeded;
+        long nanos;
+        try {
+            driver.get(loginPage.getUrl());
+            if (flow == Flow.FAILED_LOGIN) {
+                nanos = loginPage.submitLogin(TestConfig.loginEmail(), "wrong-" + UUID.randomUUID());
+                succeeded = nanos >= 0 && loginPage.isLoginErrorPresent();
+            } else {
+                nanos = loginPage.submitLogin(TestConfig.loginEmail(), TestConfig.loginPassword());
+                succeeded = nanos >= 0 && profileUrl.equals(driver.getCurrentUrl());
+            }
+        } catch (Exception e) {
+            System.out.println("Login attempt failed: " + e.getMessage());
+            succeeded = false;
+            nanos = -1;
+        } finally {
+            // Start every attempt logged out
+            try {
+                driver.manage().deleteAllCookies();
+            } catch (Exception e) {
+                System.out.println("Failed to clear cookies: " + e.getMessage());
+            }
+        }
+
+        // Attempts of the ramp-up are warm-up, attempts still running after the steady state are cut off
+        long now = System.nanoTime();
+        if (now < steadyStart || now > steadyEnd) {
+            return;
+        }
+        if (succeeded) {
+            latencies.get(flow).recordNanos(nanos);
+        } else {
+            failures.get(flow).incrementAndGet();
+        }
+    }
+
+    /**
+     * Prints throughput and latency percentiles per flow
+     */
+    public void printReport() {
+        System.out.println("Login load over " + duration.getSeconds() + "s steady state with " + users + " sessions:");
+        System.out.println(String.format("%-20s %8s %8s %10s %10s %10s %10s %10s",
+                "flow", "ok", "failed", "per sec", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map<String, Object> row : rows()) {
+            System.out.println(String.format("%-20s %8d %8d %10.2f %10.1f %10.1f %10.1f %10.1f",
+                    row.get("metric"), row.get("ok"), row.get("failed"), row.get("throughputPerSecond"),
+                    row.get("p50Ms"), row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs")));
+        }
+    }
+
+    /**
+     * Writes login-load.json with the settings and the per-flow results
+     * @param directory report directory
+     */
+    public void writeReport(Path directory) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baseUrl", TestConfig.baseUrl());
+        report.put("users", users);
+        report.put("rampUpSeconds", rampUp.getSeconds());
+        report.put("durationSeconds", duration.getSeconds());
+        report.put("thinkTimeMs", thinkTime.toMillis());
+        report.put("flows", rows());
+        try {
+            Files.createDirectories(directory);
+            Path file = directory.resolve("login-load.json");
+            Files.write(file, new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+            System.out.println("Login load report written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Failed to write login load report: " + e.getMessage());
+        }
+    }
+
+    private List<Map<String, Object>> rows() {
+        double seconds = duration.toMillis() / 1000.0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Flow flow : Flow.values()) {
+            LatencyHistogram histogram = latencies.get(flow);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("metric", flow.metric);
+            row.put("ok", histogram.getCount());
+            row.put("failed", failures.get(flow).get());
+            row.put("throughputPerSecond", histogram.getCount() / seconds);
+            row.put("meanMs", toMillis(histogram.getMeanMicros()));
+            row.put("p50Ms", toMillis(histogram.getPercentileMicros(50)));
+            row.put("p95Ms", toMillis(histogram.getPercentileMicros(95)));
+            row.put("p99Ms", toMillis(histogram.getPercentileMicros(99)));
+            row.put("maxMs", toMillis(histogram.getMaxMicros()));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static boolean isLocalTarget(String baseUrl) {
+        try {
+            String host = URI.create(baseUrl).getHost();
+            return host != null && InetAddress.getByName(host).isLoopbackAddress();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
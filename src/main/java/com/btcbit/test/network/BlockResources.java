@@ -0,0 +1,18 @@
+package com.btcbit.test.network;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares which resources may be blocked while a page object's page loads.
+ * Page objects without the annotation load with {@link ResourceProfile#FULL}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface BlockResources {
+    ResourceProfile value();
+}
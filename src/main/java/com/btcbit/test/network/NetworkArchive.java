@@ -0,0 +1,243 @@
+package com.btcbit.test.network;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.HttpMethod;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HAR-like archive of recorded responses, keyed by request method and URL, plus a hash of
+ * the body for requests other than GET (so a failed and a successful login POST differ).
+ * Responses to repeated requests, e.g. GET /profile/ before and after logging in, are kept
+ * in recording order and replayed in the same order; the last one answers any extra repeats.
+ * The archive is shared by all sessions, each replaying with positions of its own.
+ * On disk it is a directory with an index.json file and one body file per response.
+ */
+public class NetworkArchive {
+    private static final String INDEX_FILE = "index.json";
+    private static final String BODIES_DIR = "bodies";
+    private static final String UNMATCHED_FILE = "unmatched.txt";
+
+    // Hop-by-hop and encoding headers no longer match the decoded body that is replayed
+    private static final Set<String> SKIPPED_HEADERS = new HashSet<>(Arrays.asList(
+            "content-length", "content-encoding", "transfer-encoding", "connection"));
+
+    private final Path directory;
+    private final Map<String, List<RecordedResponse>> responses = new ConcurrentHashMap<>();
+    private final Set<String> unmatched = Collections.synchronizedSet(new LinkedHashSet<>());
+
+    /**
+     * @param directory directory the archive is loaded from and saved to
+     */
+    public NetworkArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Loads an archive from its directory
+     * @param directory archive directory
+     * @return loaded archive
+     * @throws IOException if the index or a body cannot be read
+     */
+    public static NetworkArchive load(Path directory) throws IOException {
+        NetworkArchive archive = new NetworkArchive(directory);
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            throw new IOException("No network archive at " + index.toAbsolutePath());
+        }
+        List<Map<String, Object>> entries = new Json().toType(
+                new String(Files.readAllBytes(index), StandardCharsets.UTF_8), Json.LIST_OF_MAPS_TYPE);
+        for (Map<String, Object> entry : entries) {
+            archive.add(RecordedResponse.fromIndexEntry(entry, directory));
+        }
+        return archive;
+    }
+
+    /**
+     * Stores a response after the earlier ones for the same request
+     * @param key request key from {@link #keyOf(HttpRequest)}, taken before the request was sent
+     * @param status response status
+     * @param headers response headers
+     * @param body decoded response body
+     */
+    public void record(String key, int status, Map<String, List<String>> headers, byte[] body) {
+        add(new RecordedResponse(key, status, headers, body));
+    }
+
+    /**
+     * Builds the archived response for a request
+     * @param request intercepted request
+     * @param positions responses already replayed per request key, owned by one session and advanced here
+     * @return archived response, or null if the request was never recorded
+     */
+    public HttpResponse replay(HttpRequest request, Map<String, AtomicInteger> positions) {
+        String key = keyOf(request);
+        List<RecordedResponse> recordings = responses.get(key);
+        if (recordings == null) {
+            unmatched.add(key);
+            return null;
+        }
+        int next = positions.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement();
+        RecordedResponse recorded = recordings.get(Math.min(next, recordings.size() - 1));
+        HttpResponse response = new HttpResponse().setStatus(recorded.status);
+        for (Map.Entry<String, List<String>> header : recorded.headers.entrySet()) {
+            for (String value : header.getValue()) {
+                response.addHeader(header.getKey(), value);
+            }
+        }
+        response.setContent(Contents.bytes(recorded.body));
+        return response;
+    }
+
+    /**
+     * @return requests that could not be answered from the archive, in the order they were seen
+     */
+    public List<String> getUnmatched() {
+        synchronized (unmatched) {
+            return new ArrayList<>(unmatched);
+        }
+    }
+
+    /**
+     * @return number of recorded responses, repeats included
+     */
+    public int size() {
+        int size = 0;
+        for (List<RecordedResponse> recordings : responses.values()) {
+            size += recordings.size();
+        }
+        return size;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Writes the index and all bodies
+     * @throws IOException if the archive cannot be written
+     */
+    public synchronized void save() throws IOException {
+        Path bodies = directory.resolve(BODIES_DIR);
+        Files.createDirectories(bodies);
+        List<Map<String, Object>> index = new ArrayList<>();
+        for (List<RecordedResponse> recordings : responses.values()) {
+            synchronized (recordings) {
+                for (int i = 0; i < recordings.size(); i++) {
+                    RecordedResponse recorded = recordings.get(i);
+                    String name = recorded.key + "#" + i;
+                    String bodyFile = BODIES_DIR + "/" + sha256(name.getBytes(StandardCharsets.UTF_8)) + ".bin";
+                    Files.write(directory.resolve(bodyFile), recorded.body);
+                    index.add(recorded.toIndexEntry(bodyFile));
+                }
+            }
+        }
+        Files.write(directory.resolve(INDEX_FILE), new Json().toJson(index).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the unmatched request list next to the archive
+     * @throws IOException if the list cannot be written
+     */
+    public void saveUnmatched() throws IOException {
+        Files.createDirectories(directory);
+        Files.write(directory.resolve(UNMATCHED_FILE), getUnmatched(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Key of a request: method and URL, plus a hash of the body unless it is a GET.
+     * Reading the body consumes its stream, so it is set again on the request.
+     * @param request intercepted request
+     * @return archive key
+     */
+    static String keyOf(HttpRequest request) {
+        String key = request.getMethod() + " " + request.getUri();
+        if (request.getMethod() == HttpMethod.GET) {
+            return key;
+        }
+        byte[] body = Contents.bytes(request.getContent());
+        request.setContent(Contents.bytes(body));
+        return body.length == 0 ? key : key + " #" + sha256(body).substring(0, 16);
+    }
+
+    private void add(RecordedResponse recorded) {
+        responses.computeIfAbsent(recorded.key, key -> Collections.synchronizedList(new ArrayList<>())).add(recorded);
+    }
+
+    static Map<String, List<String>> replayableHeaders(Map<String, List<String>> headers) {
+        Map<String, List<String>> filtered = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                filtered.put(header.getKey(), header.getValue());
+            }
+        }
+        return filtered;
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class RecordedResponse {
+        private final String key;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        RecordedResponse(String key, int status, Map<String, List<String>> headers, byte[] body) {
+            this.key = key;
+            this.status = status;
+            this.headers = replayableHeaders(headers);
+            this.body = body;
+        }
+
+        Map<String, Object> toIndexEntry(String bodyFile) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", key);
+            entry.put("status", status);
+            entry.put("headers", headers);
+            entry.put("body", bodyFile);
+            return entry;
+        }
+
+        @SuppressWarnings("unchecked")
+        static RecordedResponse fromIndexEntry(Map<String, Object> entry, Path directory) throws IOException {
+            byte[] body = Files.readAllBytes(directory.resolve((String) entry.get("body")));
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> header : ((Map<String, Object>) entry.get("headers")).entrySet()) {
+                headers.put(header.getKey(), (List<String>) header.getValue());
+            }
+            return new RecordedResponse((String) entry.get("key"),
+                    ((Number) entry.get("status")).intValue(), headers, body);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.btcbit.test.network;
+
+/**
+ * How browser traffic is handled
+ */
+public enum NetworkMode {
+    /** Requests go to the network as usual */
+    LIVE,
+    /** Requests go to the network and every response is saved to the archive */
+    RECORD,
+    /** Requests are answered from the archive only; nothing reaches the origin */
+    REPLAY
+}
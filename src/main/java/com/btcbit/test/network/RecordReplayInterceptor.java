@@ -0,0 +1,166 @@
+package com.btcbit.test.network;
+
+import com.btcbit.test.config.TestConfig;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records browser traffic into a {@link NetworkArchive} or answers it from one,
+ * using Chrome DevTools request interception.
+ * The mode comes from {@link TestConfig#networkMode()}; one archive is shared by all
+ * sessions of the JVM and saved (together with the unmatched request list) at exit.
+ * The interceptor of a session lives as long as the session and is closed by {@link #detach(WebDriver)}.
+ */
+public final class RecordReplayInterceptor {
+    private static NetworkArchive sharedArchive;
+    private static boolean finished;
+    private static final Map<WebDriver, NetworkInterceptor> interceptors =
+            Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private RecordReplayInterceptor() {
+    }
+
+    /**
+     * Starts recording or replaying for a new session, depending on the configured mode
+     * @param driver freshly created driver; must support DevTools
+     * @return the active interceptor, or null in live mode
+     */
+    public static NetworkInterceptor attachIfEnabled(WebDriver driver) {
+        NetworkMode mode = TestConfig.networkMode();
+        if (mode == NetworkMode.LIVE) {
+            return null;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            throw new IllegalStateException("Network " + mode + " mode needs a DevTools capable driver");
+        }
+        NetworkArchive archive = sharedArchive(mode);
+        NetworkInterceptor interceptor =
+                new NetworkInterceptor(driver, mode == NetworkMode.RECORD ? recording(archive) : replaying(archive));
+        interceptors.put(driver, interceptor);
+        return interceptor;
+    }
+
+    /**
+     * Stops intercepting a session; call it before the session is quit
+     * @param driver driver passed to {@link #attachIfEnabled(WebDriver)}
+     */
+    public static void detach(WebDriver driver) {
+        NetworkInterceptor interceptor = interceptors.remove(driver);
+        if (interceptor == null) {
+            return;
+        }
+        try {
+            interceptor.close();
+        } catch (Exception e) {
+            System.out.println("Failed to stop network interception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Filter that lets requests through and stores every response
+     * @param archive archive to record into
+     * @return recording filter
+     */
+    public static Filter recording(NetworkArchive archive) {
+        return next -> request -> {
+            // The key hashes the request body, so take it before the request is sent
+            String key = NetworkArchive.keyOf(request);
+            HttpResponse response = next.execute(request);
+            byte[] body = Contents.bytes(response.getContent());
+            response.setContent(Contents.bytes(body));
+            archive.record(key, response.getStatus(), headersOf(response), body);
+            return response;
+        };
+    }
+
+    /**
+     * Filter that answers every request from the archive and never reaches the origin.
+     * Requests missing from the archive get a 404 and are reported as unmatched.
+     * Each filter walks repeated requests through the archive on its own, so parallel
+     * sessions do not take each other's responses.
+     * @param archive archive to replay from
+     * @return replaying filter
+     */
+    public static Filter replaying(NetworkArchive archive) {
+        Map<String, AtomicInteger> positions = new ConcurrentHashMap<>();
+        return next -> request -> {
+            HttpResponse response = archive.replay(request, positions);
+            if (response != null) {
+                return response;
+            }
+            return new HttpResponse().setStatus(404).setContent(Contents.utf8String("Not in network archive"));
+        };
+    }
+
+    /**
+     * Prints and saves the archive state; called at the end of the run
+     */
+    public static synchronized void finish() {
+        if (sharedArchive == null || finished) {
+            return;
+        }
+        finished = true;
+        try {
+            if (TestConfig.networkMode() == NetworkMode.RECORD) {
+                sharedArchive.save();
+                System.out.println("Recorded " + sharedArchive.size() + " responses to "
+                        + sharedArchive.getDirectory().toAbsolutePath());
+            } else {
+                List<String> unmatched = sharedArchive.getUnmatched();
+                sharedArchive.saveUnmatched();
+                System.out.println("Replayed from " + sharedArchive.getDirectory().toAbsolutePath()
+                        + ", unmatched requests: " + unmatched.size());
+                for (String request : unmatched) {
+                    System.out.println("  " + request);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to save network archive: " + e.getMessage());
+        }
+    }
+
+    private static synchronized NetworkArchive sharedArchive(NetworkMode mode) {
+        if (sharedArchive == null) {
+            Path directory = Paths.get(TestConfig.networkArchiveDirectory());
+            if (mode == NetworkMode.REPLAY) {
+                try {
+                    sharedArchive = NetworkArchive.load(directory);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to load network archive: " + e.getMessage(), e);
+                }
+            } else {
+                sharedArchive = new NetworkArchive(directory);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(RecordReplayInterceptor::finish, "network-archive-save"));
+        }
+        return sharedArchive;
+    }
+
+    private static Map<String, List<String>> headersOf(HttpResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            List<String> values = new ArrayList<>();
+            for (String value : response.getHeaders(name)) {
+                values.add(value);
+            }
+            headers.put(name, values);
+        }
+        return headers;
+    }
+}
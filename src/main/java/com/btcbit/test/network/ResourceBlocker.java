@@ -0,0 +1,82 @@
+package com.btcbit.test.network;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.support.PagePerformance;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Applies the {@link BlockResources} profile of a page object to the browser session
+ * before the page is loaded, and accounts what the load cost under that profile.
+ * Blocking uses DevTools Network.setBlockedURLs and stays in effect until the next profile is applied.
+ */
+public final class ResourceBlocker {
+    private ResourceBlocker() {
+    }
+
+    /**
+     * Resolves the profile declared on a page object class
+     * @param page page object class
+     * @return declared profile, FULL if none is declared or blocking is disabled
+     */
+    public static ResourceProfile profileOf(Class<?> page) {
+        BlockResources annotation = page.getAnnotation(BlockResources.class);
+        if (annotation == null || !TestConfig.resourceBlockingEnabled()) {
+            return ResourceProfile.FULL;
+        }
+        return annotation.value();
+    }
+
+    /**
+     * Profile a page is loaded with in a session, i.e. what {@link #apply(WebDriver, Class)} blocks there
+     * @param driver browser session
+     * @param page page object class
+     * @return the page's profile, FULL if the driver does not support DevTools
+     */
+    public static ResourceProfile activeProfile(WebDriver driver, Class<?> page) {
+        return driver instanceof HasCdp ? profileOf(page) : ResourceProfile.FULL;
+    }
+
+    /**
+     * Blocks the resources of the page's profile for the following navigations
+     * @param driver browser session
+     * @param page page object class about to be loaded
+     * @return applied profile; FULL if the driver does not support DevTools
+     */
+    public static ResourceProfile apply(WebDriver driver, Class<?> page) {
+        ResourceProfile profile = profileOf(page);
+        if (!(driver instanceof HasCdp)) {
+            return ResourceProfile.FULL;
+        }
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.enable", Collections.emptyMap());
+            cdp.executeCdpCommand("Network.setBlockedURLs", blockedUrlsParameters(profile));
+            return profile;
+        } catch (Exception e) {
+            System.out.println("Failed to apply resource profile " + profile + ": " + e.getMessage());
+            return ResourceProfile.FULL;
+        }
+    }
+
+    /**
+     * Records bytes, request count and load time of a page load under the page's profile
+     * @param page page object class of the loaded page
+     * @param performance metrics of the load
+     */
+    public static void recordLoad(Class<?> page, PagePerformance performance) {
+        ResourceLoadStats.getInstance().record(page.getSimpleName(), profileOf(page),
+                performance.getTransferBytes(), performance.getLoadMs(), performance.getRequests());
+    }
+
+    /**
+     * @param profile resource profile
+     * @return CDP parameters that block the profile's resources
+     */
+    static Map<String, Object> blockedUrlsParameters(ResourceProfile profile) {
+        return Collections.singletonMap("urls", profile.getBlockedPatterns());
+    }
+}
@@ -0,0 +1,28 @@
+package com.btcbit.test.network;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Groups of page sub-resources that can be blocked, as DevTools URL patterns ('*' is a wildcard)
+ */
+public enum ResourceCategory {
+    IMAGES("*.png", "*.jpg", "*.jpeg", "*.gif", "*.webp", "*.avif", "*.ico", "*.svg"),
+    FONTS("*.woff", "*.woff2", "*.ttf", "*.otf", "*fonts.googleapis.com*", "*fonts.gstatic.com*"),
+    MEDIA("*.mp4", "*.webm", "*.mp3", "*.ogg"),
+    ANALYTICS("*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*connect.facebook.net*", "*mc.yandex.ru*", "*hotjar.com*", "*clarity.ms*",
+            "*widget.intercom.io*", "*js.intercomcdn.com*"),
+    CAPTCHA("*google.com/recaptcha*", "*gstatic.com/recaptcha*", "*recaptcha.net*", "*hcaptcha.com*");
+
+    private final List<String> patterns;
+
+    ResourceCategory(String... patterns) {
+        this.patterns = Collections.unmodifiableList(Arrays.asList(patterns));
+    }
+
+    public List<String> getPatterns() {
+        return patterns;
+    }
+}
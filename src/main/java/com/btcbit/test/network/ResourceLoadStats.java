@@ -0,0 +1,139 @@
+package com.btcbit.test.network;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.support.PersistedStats;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Page load cost per page object and {@link ResourceProfile}, accumulated across runs.
+ * Savings of a profile are reported against the FULL loads of the same page, which a run
+ * with -Dbtcbit.resources.block=false provides.
+ */
+public class ResourceLoadStats extends PersistedStats {
+    private static final Shared<ResourceLoadStats> SHARED =
+            new Shared<>(() -> new ResourceLoadStats(Paths.get(TestConfig.resourceStatsFile())));
+
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+
+    /**
+     * @param file properties file the statistics are loaded from and saved to
+     */
+    public ResourceLoadStats(Path file) {
+        super(file, "resource statistics");
+        load();
+    }
+
+    /**
+     * Returns the shared statistics backed by {@link TestConfig#resourceStatsFile()}.
+     * They are saved automatically when the JVM exits.
+     * @return shared statistics
+     */
+    public static ResourceLoadStats getInstance() {
+        return SHARED.get();
+    }
+
+    /**
+     * Adds one page load
+     * @param page page object name
+     * @param profile profile the page was loaded with
+     * @param bytes transferred bytes
+     * @param loadMs time until the load event, in milliseconds
+     * @param requests number of requests including the document
+     */
+    public void record(String page, ResourceProfile profile, long bytes, long loadMs, int requests) {
+        totals.computeIfAbsent(page + "." + profile.name(), key -> new Totals()).add(bytes, loadMs, requests);
+    }
+
+    public void printStatistics() {
+        Map<String, Totals> sorted = new TreeMap<>(totals);
+        if (sorted.isEmpty()) {
+            return;
+        }
+        System.out.println("Page loads per resource profile (averages):");
+        for (Map.Entry<String, Totals> entry : sorted.entrySet()) {
+            Totals current = entry.getValue();
+            String line = String.format("  %-30s loads=%d bytes=%d loadMs=%d requests=%d",
+                    entry.getKey(), current.loads, current.averageBytes(), current.averageLoadMs(),
+                    current.averageRequests());
+            String page = entry.getKey().substring(0, entry.getKey().lastIndexOf('.'));
+            Totals baseline = sorted.get(page + "." + ResourceProfile.FULL.name());
+            if (baseline != null && baseline != current) {
+                line += String.format(" saved: bytes=%d loadMs=%d requests=%d",
+                        baseline.averageBytes() - current.averageBytes(),
+                        baseline.averageLoadMs() - current.averageLoadMs(),
+                        baseline.averageRequests() - current.averageRequests());
+            }
+            System.out.println(line);
+        }
+    }
+
+    @Override
+    protected Properties write() {
+        if (totals.isEmpty()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, Totals> entry : totals.entrySet()) {
+            Totals current = entry.getValue();
+            synchronized (current) {
+                properties.setProperty(entry.getKey() + ".loads", String.valueOf(current.loads));
+                properties.setProperty(entry.getKey() + ".bytes", String.valueOf(current.bytes));
+                properties.setProperty(entry.getKey() + ".loadMs", String.valueOf(current.loadMs));
+                properties.setProperty(entry.getKey() + ".requests", String.valueOf(current.requests));
+            }
+        }
+        return properties;
+    }
+
+    @Override
+    protected void read(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".loads")) {
+                continue;
+            }
+            String prefix = key.substring(0, key.length() - ".loads".length());
+            try {
+                Totals loaded = new Totals();
+                loaded.loads = Long.parseLong(properties.getProperty(key));
+                loaded.bytes = Long.parseLong(properties.getProperty(prefix + ".bytes", "0"));
+                loaded.loadMs = Long.parseLong(properties.getProperty(prefix + ".loadMs", "0"));
+                loaded.requests = Long.parseLong(properties.getProperty(prefix + ".requests", "0"));
+                totals.put(prefix, loaded);
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring invalid resource statistics entry " + prefix);
+            }
+        }
+    }
+
+    private static class Totals {
+        private long loads;
+        private long bytes;
+        private long loadMs;
+        private long requests;
+
+        synchronized void add(long bytes, long loadMs, int requests) {
+            this.loads++;
+            this.bytes += bytes;
+            this.loadMs += loadMs;
+            this.requests += requests;
+        }
+
+        synchronized long averageBytes() {
+            return loads == 0 ? 0 : bytes / loads;
+        }
+
+        synchronized long averageLoadMs() {
+            return loads == 0 ? 0 : loadMs / loads;
+        }
+
+        synchronized long averageRequests() {
+            return loads == 0 ? 0 : requests / loads;
+        }
+    }
+}
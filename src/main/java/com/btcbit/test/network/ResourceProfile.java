@@ -0,0 +1,45 @@
+package com.btcbit.test.network;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Named sets of {@link ResourceCategory resource categories} blocked while a page loads
+ */
+public enum ResourceProfile {
+    /** Nothing is blocked; the baseline for savings */
+    FULL(),
+    /** Trackers only */
+    NO_ANALYTICS(ResourceCategory.ANALYTICS),
+    /** Everything decorative, but reCAPTCHA still loads so forms behave as for a user */
+    FORMS(ResourceCategory.ANALYTICS, ResourceCategory.IMAGES, ResourceCategory.FONTS, ResourceCategory.MEDIA),
+    /** Only the document, scripts and styles; enough for text and layout checks */
+    TEXT_ONLY(ResourceCategory.values());
+
+    private final Set<ResourceCategory> blocked;
+
+    ResourceProfile(ResourceCategory... blocked) {
+        this.blocked = blocked.length == 0
+                ? Collections.unmodifiableSet(EnumSet.noneOf(ResourceCategory.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(Arrays.asList(blocked)));
+    }
+
+    public Set<ResourceCategory> getBlocked() {
+        return blocked;
+    }
+
+    /**
+     * @return DevTools URL patterns of all blocked categories
+     */
+    public List<String> getBlockedPatterns() {
+        List<String> patterns = new ArrayList<>();
+        for (ResourceCategory category : blocked) {
+            patterns.addAll(category.getPatterns());
+        }
+        return patterns;
+    }
+}
@@ -1,29 +1,169 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.GateMode;
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.config.VerificationMode;
+import com.btcbit.test.driver.DriverBackend;
+import com.btcbit.test.driver.TracedWait;
+import com.btcbit.test.network.ResourceBlocker;
+import com.btcbit.test.support.BatchDomVerifier;
+import com.btcbit.test.support.DomCheck;
+import com.btcbit.test.support.DomCheckReport;
+import com.btcbit.test.support.DomCheckResult;
+import com.btcbit.test.support.LocatorCache;
+import com.btcbit.test.support.LocatorChain;
+import com.btcbit.test.support.PagePerformance;
+import com.btcbit.test.support.PageSnapshot;
+import com.btcbit.test.support.PerformanceMonitor;
+import com.btcbit.test.support.WaitBudget;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Common page-object primitives.
+ * Waits are explicit and draw from a {@link WaitBudget}, so the driver is expected to run
+ * with an implicit wait of zero: "is it there?" probes then answer within one round trip.
+ */
 public class BasePage {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration SETTLE_TIMEOUT = Duration.ofSeconds(3);
+    
+    // Loads whose load event had not fired when the page object moved on; read before the page is left
+    private static final ThreadLocal<List<PendingLoad>> PENDING_LOADS = ThreadLocal.withInitial(ArrayList::new);
+    
+    // Resolves once the scroll position and the element's bounding box have not changed
+    // for three animation frames and no finite CSS animation touching the element is running.
+    // Resolves with false if the page has not settled within the timeout.
+    private static final String SETTLE_SCRIPT =
+            "var element = arguments[0];"
+            + "var timeoutMs = arguments[1];"
+            + "var done = arguments[arguments.length - 1];"
+            + "var finished = false;"
+            + "var last = null;"
+            + "var stableFrames = 0;"
+            + "function finish(result) { if (!finished) { finished = true; done(result); } }"
+            + "function geometry() {"
+            + "  var r = element.getBoundingClientRect();"
+            + "  return [window.scrollX, window.scrollY, r.top, r.left, r.width, r.height].join(',');"
+            + "}"
+            + "function animating() {"
+            + "  if (!document.getAnimations) { return false; }"
+            + "  return document.getAnimations().some(function (a) {"
+            + "    var target = a.effect && a.effect.target;"
+            + "    if (a.playState !== 'running' || !target) { return false; }"
+            + "    if (a.effect.getComputedTiming().iterations === Infinity) { return false; }"
+            + "    return target.contains(element) || element.contains(target);"
+            + "  });"
+            + "}"
+            + "function step() {"
+            + "  if (finished) { return; }"
+            + "  var current = geometry();"
+            + "  stableFrames = (current === last && !animating()) ? stableFrames + 1 : 0;"
+            + "  last = current;"
+            + "  if (stableFrames >= 3) { finish(true); } else { requestAnimationFrame(step); }"
+            + "}"
+            + "setTimeout(function () { finish(false); }, timeoutMs);"
+            + "requestAnimationFrame(step);";
+    
     protected WebDriver driver;
     protected WebDriverWait wait;
+    private PageSnapshot snapshot;
+    private Boolean javaScriptEnabled;
     
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.wait = new TracedWait(driver, TestConfig.actionTimeout(), POLL_INTERVAL);
+    }
+    
+    /**
+     * Starts the wait budget for one page action
+     * @return budget of {@link TestConfig#actionTimeout()}
+     */
+    protected WaitBudget newBudget() {
+        return WaitBudget.of(TestConfig.actionTimeout());
+    }
+    
+    /**
+     * Waits for a condition using only the time left in the budget
+     * @param condition condition to wait for
+     * @param budget shared deadline of the current action
+     * @return the condition's value
+     * @throws TimeoutException if the budget runs out first
+     */
+    protected <T> T waitUntil(ExpectedCondition<T> condition, WaitBudget budget) {
+        return new TracedWait(driver, budget.remaining(), POLL_INTERVAL).until(condition);
     }
     
     protected WebElement waitForElementVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return waitForElementVisible(locator, newBudget());
+    }
+    
+    protected WebElement waitForElementVisible(By locator, WaitBudget budget) {
+        return waitUntil(ExpectedConditions.visibilityOfElementLocated(locator), budget);
     }
     
     protected WebElement waitForElementClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        return waitForElementClickable(locator, newBudget());
+    }
+    
+    protected WebElement waitForElementClickable(By locator, WaitBudget budget) {
+        return waitUntil(ExpectedConditions.elementToBeClickable(locator), budget);
+    }
+    
+    /**
+     * Waits until any of the locators finds a visible element.
+     * All locators are probed on every poll, so the chain costs one budget, not one per locator.
+     * @param budget shared deadline of the current action
+     * @param locators locators in order of preference
+     * @return first visible element, in locator order
+     */
+    protected WebElement waitForAnyVisible(WaitBudget budget, By... locators) {
+        return waitUntil(firstMatching(Arrays.asList(locators), false), budget).element;
+    }
+    
+    /**
+     * Waits until any of the locators finds a clickable element.
+     * All locators are probed on every poll, so the chain costs one budget, not one per locator.
+     * @param budget shared deadline of the current action
+     * @param locators locators in order of preference
+     * @return first clickable element, in locator order
+     */
+    protected WebElement waitForAnyClickable(WaitBudget budget, By... locators) {
+        return waitUntil(firstMatching(Arrays.asList(locators), true), budget).element;
+    }
+    
+    /**
+     * Waits until any strategy of the chain finds a visible element.
+     * The strategy that won last time is tried first and the winner is recorded in the {@link LocatorCache}.
+     * @param budget shared deadline of the current action
+     * @param chain alternative locators of one logical element
+     * @return first visible element
+     */
+    protected WebElement waitForAnyVisible(WaitBudget budget, LocatorChain chain) {
+        return resolve(chain, budget, false);
+    }
+    
+    /**
+     * Waits until any strategy of the chain finds a clickable element.
+     * The strategy that won last time is tried first and the winner is recorded in the {@link LocatorCache}.
+     * @param budget shared deadline of the current action
+     * @param chain alternative locators of one logical element
+     * @return first clickable element
+     */
+    protected WebElement waitForAnyClickable(WaitBudget budget, LocatorChain chain) {
+        return resolve(chain, budget, true);
     }
     
     /**
@@ -31,24 +171,66 @@ public class BasePage {
      * @param locator Element locator
      */
     protected void scrollAndClick(By locator) {
-        WebElement element = waitForElementVisible(locator);
+        scrollAndClick(waitForElementVisible(locator));
+    }
+    
+    /**
+     * Scrolls to the element and then clicks it
+     * @param element WebElement to click
+     */
+    protected void scrollAndClick(WebElement element) {
         scrollToElement(element);
         element.click();
+        invalidateSnapshot();
     }
     
     /**
-     * Scrolls to the element using JavaScript
+     * Scrolls to the element using JavaScript and waits until the scroll has settled
      * @param element WebElement to scroll to
      */
     protected void scrollToElement(WebElement element) {
+        if (!isJavaScriptEnabled()) {
+            // No layout to scroll without a real browser
+            return;
+        }
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", element);
         
-        // Add a small delay to allow the scroll to complete
+        waitForSettled(element);
+    }
+    
+    /**
+     * Waits until the scroll position and the element's position stop changing
+     * and its CSS animations have finished
+     * @param element WebElement that should come to rest
+     * @return true if the element settled, false if the timeout expired first
+     */
+    protected boolean waitForSettled(WebElement element) {
+        return waitForSettled(element, SETTLE_TIMEOUT);
+    }
+    
+    /**
+     * Waits until the scroll position and the element's position stop changing
+     * and its CSS animations have finished
+     * @param element WebElement that should come to rest
+     * @param timeout maximum time to wait
+     * @return true if the element settled, false if the timeout expired first
+     */
+    protected boolean waitForSettled(WebElement element, Duration timeout) {
+        if (!isJavaScriptEnabled()) {
+            return true;
+        }
         try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            Object settled = js.executeAsyncScript(SETTLE_SCRIPT, element, timeout.toMillis());
+            if (!Boolean.TRUE.equals(settled)) {
+                System.out.println("Element did not settle within " + timeout.toMillis() + " ms");
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            System.out.println("Failed to wait for element to settle: " + e.getMessage());
+            return false;
         }
     }
     
@@ -58,28 +240,328 @@ public class BasePage {
      * @param locator Element locator
      */
     protected void clickWithJavaScript(By locator) {
-        WebElement element = waitForElementVisible(locator);
+        clickWithJavaScript(waitForElementVisible(locator));
+    }
+    
+    /**
+     * Clicks an element using JavaScript, even if it is hidden behind custom styling
+     * @param element WebElement to click
+     */
+    protected void clickWithJavaScript(WebElement element) {
+        invalidateSnapshot();
+        if (!isJavaScriptEnabled()) {
+            element.click();
+            return;
+        }
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].click();", element);
     }
     
     protected void click(By locator) {
         waitForElementClickable(locator).click();
+        invalidateSnapshot();
     }
     
     protected void sendKeys(By locator, String text) {
         waitForElementVisible(locator).sendKeys(text);
+        invalidateSnapshot();
     }
     
     protected String getText(By locator) {
         return waitForElementVisible(locator).getText();
     }
     
+    /**
+     * Checks whether an element is displayed right now, without waiting
+     * @param locator Element locator
+     * @return true if the first matching element is displayed
+     */
     protected boolean isElementDisplayed(By locator) {
         try {
-            return driver.findElement(locator).isDisplayed();
+            List<WebElement> elements = driver.findElements(locator);
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
         } catch (Exception e) {
             return false;
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Checks whether an element is displayed, waiting at most the given time for it to appear
+     * @param locator Element locator
+     * @param timeout maximum time to wait
+     * @return true if the element became visible in time
+     */
+    protected boolean isElementDisplayed(By locator, Duration timeout) {
+        try {
+            waitForElementVisible(locator, WaitBudget.of(timeout));
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Starts loading a page in the current tab and returns without waiting for it, so other
+     * tabs can be served meanwhile. Without JavaScript the page is loaded synchronously.
+     * @param url page to load
+     */
+    protected void startLoad(String url) {
+        measurePendingLoads();
+        invalidateSnapshot();
+        if (!isJavaScriptEnabled()) {
+            driver.get(url);
+            return;
+        }
+        ((JavascriptExecutor) driver).executeScript("window.location.assign(arguments[0]);", url);
+    }
+    
+    /**
+     * Same as {@link #startLoad(String)}, with the resource profile of the target page applied first
+     * @param url page to load
+     * @param page page object class of the page about to load
+     */
+    protected void startLoad(String url, Class<? extends BasePage> page) {
+        prepareLoad(page);
+        startLoad(url);
+    }
+    
+    /**
+     * Checks whether the current document has finished loading, without waiting
+     * @return true once the load event has fired
+     */
+    protected boolean isDocumentComplete() {
+        if (!isJavaScriptEnabled()) {
+            return true;
+        }
+        return "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState"));
+    }
+    
+    /**
+     * Blocks the resources the target page object does not need before navigating to it
+     * @param page page object class of the page about to load
+     */
+    protected void prepareLoad(Class<? extends BasePage> page) {
+        measurePendingLoads();
+        invalidateSnapshot();
+        ResourceBlocker.apply(driver, page);
+    }
+    
+    /**
+     * Captures the front-end metrics of the page load, checks them against the page's
+     * performance budgets and accounts the load under the page's resource profile.
+     * Only with -Dbtcbit.perf.gate=fail does it wait (within the budget) for the load event;
+     * otherwise the flow goes on at once and a load that is still running is measured when the
+     * page is left, see {@link #measurePendingLoads()}.
+     * @param page page object class of the loaded page
+     * @param budget action budget
+     */
+    protected void recordLoad(Class<? extends BasePage> page, WaitBudget budget) {
+        invalidateSnapshot();
+        if (!isJavaScriptEnabled()) {
+            // Without scripts there is no Performance API to read
+            return;
+        }
+        try {
+            if (TestConfig.perfGate() == GateMode.FAIL) {
+                waitUntil(driver -> isDocumentComplete(), budget);
+            } else if (!isDocumentComplete()) {
+                PENDING_LOADS.get().add(new PendingLoad(driver, page, driver.getWindowHandle(), driver.getCurrentUrl()));
+                return;
+            }
+            measureLoad(driver, page);
+        } catch (TimeoutException e) {
+            System.out.println("Page load of " + page.getSimpleName() + " not measured: load event did not fire in time");
+        } catch (Exception e) {
+            System.out.println("Failed to measure page load of " + page.getSimpleName() + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Measures the loads {@link #recordLoad} left pending in the current tab; called before the
+     * page is left, when the load has usually finished in the meantime
+     */
+    protected void measurePendingLoads() {
+        List<PendingLoad> pending = PENDING_LOADS.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        String window = driver.getWindowHandle();
+        for (Iterator<PendingLoad> iterator = pending.iterator(); iterator.hasNext(); ) {
+            PendingLoad load = iterator.next();
+            if (load.driver == driver && load.window.equals(window)) {
+                iterator.remove();
+                load.measure();
+            }
+        }
+    }
+    
+    /**
+     * Measures all loads still pending on this thread, e.g. the last page of a test;
+     * loads whose page is no longer current are reported as not measured
+     */
+    public static void measureAllPendingLoads() {
+        List<PendingLoad> pending = PENDING_LOADS.get();
+        for (PendingLoad load : pending) {
+            load.measure();
+        }
+        pending.clear();
+    }
+    
+    private static void measureLoad(WebDriver driver, Class<? extends BasePage> page) {
+        PagePerformance performance = PagePerformance.capture(driver, page.getSimpleName());
+        if (performance == null) {
+            System.out.println("Page load of " + page.getSimpleName() + " not measured: no finished document load");
+            return;
+        }
+        ResourceBlocker.recordLoad(page, performance);
+        PerformanceMonitor.getInstance().record(performance, ResourceBlocker.activeProfile(driver, page));
+    }
+    
+    /**
+     * @return true if checks run against a captured page snapshot instead of the live browser,
+     *         always the case on a driver without JavaScript
+     */
+    protected boolean isSnapshotMode() {
+        return TestConfig.verificationMode() == VerificationMode.SNAPSHOT || !isJavaScriptEnabled();
+    }
+    
+    /**
+     * @return true if the driver runs scripts, false on the lightweight HtmlUnit backend
+     */
+    protected boolean isJavaScriptEnabled() {
+        if (javaScriptEnabled == null) {
+            javaScriptEnabled = DriverBackend.of(driver).supportsJavaScript();
+        }
+        return javaScriptEnabled;
+    }
+    
+    /**
+     * Evaluates checks in the browser with one script call or, in snapshot mode,
+     * in-process against the captured page source
+     * @param checks checks to evaluate
+     * @return per-field results
+     */
+    protected DomCheckReport verifyChecks(List<DomCheck> checks) {
+        if (isSnapshotMode()) {
+            return snapshot().verify(checks);
+        }
+        return new BatchDomVerifier(driver).verify(checks);
+    }
+    
+    /**
+     * Returns a snapshot of the current page. It is captured once and reused until the URL
+     * changes or the page object acts on the page or navigates, see {@link #invalidateSnapshot()}.
+     * @return parsed copy of the rendered page
+     */
+    protected PageSnapshot snapshot() {
+        String url = driver.getCurrentUrl();
+        if (snapshot == null || !snapshot.getUrl().equals(url)) {
+            snapshot = PageSnapshot.capture(driver);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Drops the cached snapshot, so the next check captures the page again. Called after every
+     * click, text input and navigation, and whenever the page may have changed without one.
+     */
+    protected void invalidateSnapshot() {
+        snapshot = null;
+    }
+    
+    /**
+     * Reads an element's text from the page snapshot. If the element is not in the snapshot
+     * yet, e.g. because a single-page app renders it later, waits once for it in the browser
+     * and captures the page again.
+     * @param locator Element locator
+     * @return trimmed text
+     * @throws TimeoutException if the element does not become visible within the action timeout
+     */
+    protected String getSnapshotText(By locator) {
+        DomCheck check = DomCheck.visible(locator.toString(), locator);
+        DomCheckResult result = snapshot().verify(check);
+        if (!result.isFound()) {
+            waitForElementVisible(locator);
+            invalidateSnapshot();
+            result = snapshot().verify(check);
+        }
+        return result.getActualText();
+    }
+    
+    private WebElement resolve(LocatorChain chain, WaitBudget budget, boolean clickable) {
+        LocatorCache cache = LocatorCache.getInstance();
+        List<LocatorChain.Strategy> strategies = cache.order(chain);
+        List<By> locators = new ArrayList<>();
+        for (LocatorChain.Strategy strategy : strategies) {
+            locators.add(strategy.getLocator());
+        }
+        
+        Match match = waitUntil(firstMatching(locators, clickable), budget);
+        cache.recordWin(chain, strategies.get(match.index));
+        return match.element;
+    }
+    
+    private ExpectedCondition<Match> firstMatching(List<By> locators, boolean clickable) {
+        return new ExpectedCondition<Match>() {
+            @Override
+            public Match apply(WebDriver webDriver) {
+                for (int i = 0; i < locators.size(); i++) {
+                    try {
+                        List<WebElement> elements = webDriver.findElements(locators.get(i));
+                        if (elements.isEmpty()) {
+                            continue;
+                        }
+                        WebElement element = elements.get(0);
+                        if (element.isDisplayed() && (!clickable || element.isEnabled())) {
+                            return new Match(i, element);
+                        }
+                    } catch (Exception e) {
+                        // Stale or invalid match, try the next locator
+                    }
+                }
+                return null;
+            }
+            
+            @Override
+            public String toString() {
+                return (clickable ? "clickable" : "visible") + " element located by any of " + locators;
+            }
+        };
+    }
+    
+    private static class Match {
+        private final int index;
+        private final WebElement element;
+        
+        Match(int index, WebElement element) {
+            this.index = index;
+            this.element = element;
+        }
+    }
+    
+    private static class PendingLoad {
+        private final WebDriver driver;
+        private final Class<? extends BasePage> page;
+        private final String window;
+        private final String url;
+        
+        PendingLoad(WebDriver driver, Class<? extends BasePage> page, String window, String url) {
+            this.driver = driver;
+            this.page = page;
+            this.window = window;
+            this.url = url;
+        }
+        
+        void measure() {
+            try {
+                if (!window.equals(driver.getWindowHandle()) || !url.equals(driver.getCurrentUrl())) {
+                    System.out.println("Page load of " + page.getSimpleName() + " not measured: page left before its load event");
+                    return;
+                }
+                measureLoad(driver, page);
+            } catch (Exception e) {
+                System.out.println("Failed to measure page load of " + page.getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -1,29 +1,41 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.BlockResources;
+import com.btcbit.test.network.ResourceProfile;
+import com.btcbit.test.support.DomCheck;
+import com.btcbit.test.support.DomCheckReport;
+import com.btcbit.test.support.TabTask;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import java.util.Arrays;
+import java.util.List;
+
+// Office details are text checks
+@BlockResources(ResourceProfile.TEXT_ONLY)
 public class ContactsPage extends BasePage {
-    private final String contactsUrl = "https://btcbit.net/contacts/";
+    // Company information locators, shared with browser-free checks
+    private static final By POLAND_OFFICE_HEADER = By.xpath("//h2[text()='Poland']");
+    private static final By ESTONIA_OFFICE_HEADER = By.xpath("//h2[text()='Estonia']");
     
-    // Company information locators
-    private final By polandOfficeHeader = By.xpath("//h2[text()='Poland']");
-    private final By estoniaOfficeHeader = By.xpath("//h2[text()='Estonia']");
+    private static final By POLAND_COMPANY_NAME = By.xpath("//h3[contains(text(), 'BTCBIT Sp. z o.o.')]");
+    private static final By POLAND_ADDRESS_COMPANY = By.xpath("//h3[contains(.,'BTCBIT Sp. z o.o. ')]");
+    private static final By POLAND_ADDRESS_STREET = By.xpath("//h3[contains(.,'Ul. Gesia 8 - 205, 31-535 ')]");
+    private static final By POLAND_ADDRESS_CITY = By.xpath("//h3[contains(.,'Krakow, Poland')]");
+    private static final By POLAND_REG_NUMBER = By.xpath("//div//p[contains(text(), '369827363')]");
+    private static final By POLAND_PHONE = By.xpath("//li/a[@href='tel:+48588813222']");
     
-    private final By polandCompanyName = By.xpath("//h3[contains(text(), 'BTCBIT Sp. z o.o.')]");
-    private final By polandAddressCompany = By.xpath("//h3[contains(.,'BTCBIT Sp. z o.o. ')]");
-    private final By polandAddressStreet = By.xpath("//h3[contains(.,'Ul. Gesia 8 - 205, 31-535 ')]");
-    private final By polandAddressCity = By.xpath("//h3[contains(.,'Krakow, Poland')]");
-    private final By polandRegNumber = By.xpath("//div//p[contains(text(), '369827363')]");
-    private final By polandPhone = By.xpath("//li/a[@href='tel:+48588813222']");
+    private static final By ESTONIA_COMPANY_NAME = By.xpath("//h3[contains(text(), 'BTCBIT OÜ')]");
+    private static final By ESTONIA_ADDRESS_COMPANY = By.xpath("//h3[contains(.,'BTCBIT OÜ ')]");
+    private static final By ESTONIA_ADDRESS_STREET = By.xpath("//h3[contains(.,'Pikk tn 33-3, 10133')]");
+    private static final By ESTONIA_ADDRESS_CITY = By.xpath("//h3[contains(.,'Tallinn, Estonia')]");
+    private static final By ESTONIA_REG_NUMBER = By.xpath("//div//p[contains(text(), '16121208')]");
+    private static final By ESTONIA_PHONE = By.xpath("//li/a[@href='tel:+3728803222']");
     
-    private final By estoniaCompanyName = By.xpath("//h3[contains(text(), 'BTCBIT OÜ')]");
-    private final By estoniaAddressCompany = By.xpath("//h3[contains(.,'BTCBIT OÜ ')]");
-    private final By estoniaAddressStreet = By.xpath("//h3[contains(.,'Pikk tn 33-3, 10133')]");
-    private final By estoniaAddressCity = By.xpath("//h3[contains(.,'Tallinn, Estonia')]");
-    private final By estoniaRegNumber = By.xpath("//div//p[contains(text(), '16121208')]");
-    private final By estoniaPhone = By.xpath("//li/a[@href='tel:+3728803222']");
+    private final String contactsUrl = TestConfig.baseUrl() + "/contacts/";
     
     public ContactsPage(WebDriver driver) {
         super(driver);
@@ -43,96 +55,42 @@ public class ContactsPage extends BasePage {
         }
     }
     
+    /**
+     * Checks that make up the Poland office block
+     * @return checks for header, company name, address, registration number and phone
+     */
+    public static List<DomCheck> polandOfficeChecks() {
+        return Arrays.asList(
+                DomCheck.visible("Poland office header", POLAND_OFFICE_HEADER),
+                DomCheck.visible("Poland company name", POLAND_COMPANY_NAME),
+                DomCheck.visible("Poland address company line", POLAND_ADDRESS_COMPANY),
+                DomCheck.visible("Poland address street line", POLAND_ADDRESS_STREET),
+                DomCheck.visible("Poland address city line", POLAND_ADDRESS_CITY),
+                DomCheck.containsText("Poland registration number", POLAND_REG_NUMBER, "369827363"),
+                DomCheck.containsText("Poland phone number", POLAND_PHONE, "+48 588 813 222"));
+    }
+    
+    /**
+     * Checks that make up the Estonia office block
+     * @return checks for header, company name, address, registration number and phone
+     */
+    public static List<DomCheck> estoniaOfficeChecks() {
+        return Arrays.asList(
+                DomCheck.visible("Estonia office header", ESTONIA_OFFICE_HEADER),
+                DomCheck.visible("Estonia company name", ESTONIA_COMPANY_NAME),
+                DomCheck.visible("Estonia address company line", ESTONIA_ADDRESS_COMPANY),
+                DomCheck.visible("Estonia address street line", ESTONIA_ADDRESS_STREET),
+                DomCheck.visible("Estonia address city line", ESTONIA_ADDRESS_CITY),
+                DomCheck.containsText("Estonia registration number", ESTONIA_REG_NUMBER, "16121208"),
+                DomCheck.containsText("Estonia phone number", ESTONIA_PHONE, "+372 8 803 222"));
+    }
+    
     /**
      * Verifies that Poland office information is displayed
      * @return true if all Poland office information is present
      */
     public boolean verifyPolandOfficeInfo() {
-        // Scroll to Poland section first
-        try {
-            System.out.println("Scrolling to Poland office section...");
-            scrollToElement(driver.findElement(polandOfficeHeader));
-            
-            // Wait a bit for any animations to complete
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        } catch (Exception e) {
-            System.out.println("Failed to scroll to Poland office section: " + e.getMessage());
-            return false;
-        }
-
-        System.out.println("Checking Poland office header...");
-        boolean headerDisplayed = isElementDisplayed(polandOfficeHeader);
-        if (!headerDisplayed) {
-            System.out.println("Poland office header is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland company name...");
-        boolean companyDisplayed = isElementDisplayed(polandCompanyName);
-        if (!companyDisplayed) {
-            System.out.println("Poland company name is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland address company line...");
-        boolean addressCompanyDisplayed = isElementDisplayed(polandAddressCompany);
-        if (!addressCompanyDisplayed) {
-            System.out.println("Poland address company line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland address street line...");
-        boolean addressStreetDisplayed = isElementDisplayed(polandAddressStreet);
-        if (!addressStreetDisplayed) {
-            System.out.println("Poland address street line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland address city line...");
-        boolean addressCityDisplayed = isElementDisplayed(polandAddressCity);
-        if (!addressCityDisplayed) {
-            System.out.println("Poland address city line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland registration number...");
-        boolean regDisplayed = isElementDisplayed(polandRegNumber);
-        if (!regDisplayed) {
-            System.out.println("Poland registration number is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Poland phone number...");
-        boolean phoneDisplayed = isElementDisplayed(polandPhone);
-        if (!phoneDisplayed) {
-            System.out.println("Poland phone number is not displayed");
-            return false;
-        }
-        
-        // Verify registration number
-        System.out.println("Verifying Poland registration number text...");
-        String regNumber = driver.findElement(polandRegNumber).getText().trim();
-        System.out.println("Found Poland reg number: " + regNumber);
-        if (!regNumber.contains("369827363")) {
-            System.out.println("Poland office registration number mismatch");
-            return false;
-        }
-        
-        // Verify phone number
-        System.out.println("Verifying Poland phone number text...");
-        String phone = driver.findElement(polandPhone).getText().trim();
-        System.out.println("Found Poland phone: " + phone);
-        if (!phone.contains("+48 588 813 222")) {
-            System.out.println("Poland office phone number mismatch");
-            return false;
-        }
-        
-        System.out.println("All Poland office information verified successfully");
-        return true;
+        return verifyOfficeInfo("Poland", POLAND_OFFICE_HEADER, polandOfficeChecks());
     }
     
     /**
@@ -140,90 +98,72 @@ public class ContactsPage extends BasePage {
      * @return true if all Estonia office information is present
      */
     public boolean verifyEstoniaOfficeInfo() {
-        // Scroll to Estonia section first
+        return verifyOfficeInfo("Estonia", ESTONIA_OFFICE_HEADER, estoniaOfficeChecks());
+    }
+    
+    /**
+     * Task that loads the contacts page in its own tab and verifies the Poland office there
+     * @return task with the verification result
+     */
+    public TabTask<Boolean> polandOfficeTask() {
+        return officeTask("Poland", POLAND_OFFICE_HEADER, polandOfficeChecks());
+    }
+    
+    /**
+     * Task that loads the contacts page in its own tab and verifies the Estonia office there
+     * @return task with the verification result
+     */
+    public TabTask<Boolean> estoniaOfficeTask() {
+        return officeTask("Estonia", ESTONIA_OFFICE_HEADER, estoniaOfficeChecks());
+    }
+    
+    private TabTask<Boolean> officeTask(String country, By officeHeader, List<DomCheck> checks) {
+        return TabTask.of(country + " office information", () -> startLoad(contactsUrl, ContactsPage.class), () -> {
+            // Not ready until the office section is rendered on the contacts page
+            if (!contactsUrl.equals(driver.getCurrentUrl()) || !isElementDisplayed(officeHeader)) {
+                return null;
+            }
+            recordLoad(ContactsPage.class, newBudget());
+            // Sibling tasks share this page object but not the tab, so never reuse their snapshot
+            invalidateSnapshot();
+            return checkOfficeInfo(country, checks);
+        }, this::measurePendingLoads);
+    }
+    
+    private boolean verifyOfficeInfo(String country, By officeHeader, List<DomCheck> checks) {
+        // Scroll to the office section first; a snapshot only needs the section to be rendered
         try {
-            System.out.println("Scrolling to Estonia office section...");
-            scrollToElement(driver.findElement(estoniaOfficeHeader));
-            
-            // Wait a bit for any animations to complete
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+            WebElement header = waitForElementVisible(officeHeader);
+            if (!isSnapshotMode()) {
+                System.out.println("Scrolling to " + country + " office section...");
+                scrollToElement(header);
             }
         } catch (Exception e) {
-            System.out.println("Failed to scroll to Estonia office section: " + e.getMessage());
-            return false;
-        }
-
-        System.out.println("Checking Estonia office header...");
-        boolean headerDisplayed = isElementDisplayed(estoniaOfficeHeader);
-        if (!headerDisplayed) {
-            System.out.println("Estonia office header is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia company name...");
-        boolean companyDisplayed = isElementDisplayed(estoniaCompanyName);
-        if (!companyDisplayed) {
-            System.out.println("Estonia company name is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia address company line...");
-        boolean addressCompanyDisplayed = isElementDisplayed(estoniaAddressCompany);
-        if (!addressCompanyDisplayed) {
-            System.out.println("Estonia address company line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia address street line...");
-        boolean addressStreetDisplayed = isElementDisplayed(estoniaAddressStreet);
-        if (!addressStreetDisplayed) {
-            System.out.println("Estonia address street line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia address city line...");
-        boolean addressCityDisplayed = isElementDisplayed(estoniaAddressCity);
-        if (!addressCityDisplayed) {
-            System.out.println("Estonia address city line is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia registration number...");
-        boolean regDisplayed = isElementDisplayed(estoniaRegNumber);
-        if (!regDisplayed) {
-            System.out.println("Estonia registration number is not displayed");
-            return false;
-        }
-
-        System.out.println("Checking Estonia phone number...");
-        boolean phoneDisplayed = isElementDisplayed(estoniaPhone);
-        if (!phoneDisplayed) {
-            System.out.println("Estonia phone number is not displayed");
+            System.out.println("Failed to scroll to " + country + " office section: " + e.getMessage());
             return false;
         }
         
-        // Verify registration number
-        System.out.println("Verifying Estonia registration number text...");
-        String regNumber = driver.findElement(estoniaRegNumber).getText().trim();
-        System.out.println("Found Estonia reg number: " + regNumber);
-        if (!regNumber.contains("16121208")) {
-            System.out.println("Estonia office registration number mismatch");
+        return checkOfficeInfo(country, checks);
+    }
+    
+    private boolean checkOfficeInfo(String country, List<DomCheck> checks) {
+        // Check every field in a single round trip to the browser, or against the page snapshot
+        System.out.println("Checking " + country + " office information...");
+        DomCheckReport report;
+        try {
+            report = verifyChecks(checks);
+        } catch (Exception e) {
+            System.out.println("Failed to check " + country + " office information: " + e.getMessage());
             return false;
         }
         
-        // Verify phone number
-        System.out.println("Verifying Estonia phone number text...");
-        String phone = driver.findElement(estoniaPhone).getText().trim();
-        System.out.println("Found Estonia phone: " + phone);
-        if (!phone.contains("+372 8 803 222")) {
-            System.out.println("Estonia office phone number mismatch");
+        report.print(country + " office information");
+        if (!report.isAllPassed()) {
+            System.out.println(country + " office information mismatch");
             return false;
         }
         
-        System.out.println("All Estonia office information verified successfully");
+        System.out.println("All " + country + " office information verified successfully");
         return true;
     }
     
@@ -232,15 +172,8 @@ public class ContactsPage extends BasePage {
      */
     public void scrollToCompanyInfo() {
         try {
-            // Try to scroll to Poland office header first
-            scrollToElement(driver.findElement(polandOfficeHeader));
-            
-            // Wait a bit for any animations to complete
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
+            // Try to scroll to Poland office header first (waits until the scroll has settled)
+            scrollToElement(waitForElementVisible(POLAND_OFFICE_HEADER));
         } catch (Exception e) {
             System.out.println("Failed to scroll to company information: " + e.getMessage());
         }
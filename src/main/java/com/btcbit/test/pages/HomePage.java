@@ -1,11 +1,27 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.BlockResources;
+import com.btcbit.test.network.ResourceProfile;
+import com.btcbit.test.support.DomCheck;
+import com.btcbit.test.support.LocatorChain;
+import com.btcbit.test.support.WaitBudget;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import java.util.Arrays;
+import java.util.List;
+
+// Only links are located here; images, fonts, trackers and widgets are not needed
+@BlockResources(ResourceProfile.TEXT_ONLY)
 public class HomePage extends BasePage {
-    private final String baseUrl = "https://btcbit.net";
+    // Navigation links by target only, shared with browser-free checks
+    private static final By SIGN_UP_HREF = By.cssSelector("a[href='/sign_up/']");
+    private static final By SIGN_IN_HREF = By.cssSelector("a[href='/sign_in/']");
+    private static final By CONTACTS_HREF = By.cssSelector("a[href='/contacts/']");
+
+    private final String baseUrl = TestConfig.baseUrl();
 
     // Locators
     private final By getStartedLink = By.cssSelector("a.header_signup__VSWAE[href='/sign_up/']");
@@ -23,81 +39,75 @@ public class HomePage extends BasePage {
     private final By contactUsLinkByPartialText = By.partialLinkText("Contact");
     private final By contactUsLinkByXPath = By.xpath("//a[contains(@class, 'questions_button') or contains(@href, '/contacts/')]");
 
+    // Fallback chains; the strategy that worked last time is tried first
+    private final LocatorChain getStartedChain = new LocatorChain("HomePage.getStartedLink")
+            .add("css", getStartedLink)
+            .add("linkText", getStartedLinkByText)
+            .add("partialLinkText", getStartedLinkByPartialText)
+            .add("xpath", getStartedLinkByXPath);
+    private final LocatorChain loginChain = new LocatorChain("HomePage.loginLink")
+            .add("css", loginLink)
+            .add("linkText", loginLinkByText)
+            .add("partialLinkText", loginLinkByPartialText)
+            .add("xpath", loginLinkByXPath);
+    private final LocatorChain contactUsChain = new LocatorChain("HomePage.contactUsLink")
+            .add("css", contactUsLink)
+            .add("linkText", contactUsLinkByText)
+            .add("partialLinkText", contactUsLinkByPartialText)
+            .add("xpath", contactUsLinkByXPath);
+
     public HomePage(WebDriver driver) {
         super(driver);
     }
 
+    /**
+     * Checks that the server-rendered home page links to sign up, sign in and contacts
+     * @return link checks
+     */
+    public static List<DomCheck> navigationLinkChecks() {
+        return Arrays.asList(
+                DomCheck.visible("Get Started link to /sign_up/", SIGN_UP_HREF),
+                DomCheck.visible("Login link to /sign_in/", SIGN_IN_HREF),
+                DomCheck.visible("Contact us link to /contacts/", CONTACTS_HREF));
+    }
+
     public void open() {
+        prepareLoad(HomePage.class);
         driver.get(baseUrl);
+        recordLoad(HomePage.class, newBudget());
     }
 
     public void clickGetStartedLink() {
-        try {
-            // Try primary locator first
-            wait.until(ExpectedConditions.elementToBeClickable(getStartedLink)).click();
-        } catch (Exception e) {
-            try {
-                // Try by text
-                wait.until(ExpectedConditions.elementToBeClickable(getStartedLinkByText)).click();
-            } catch (Exception e2) {
-                try {
-                    // Try by partial text
-                    wait.until(ExpectedConditions.elementToBeClickable(getStartedLinkByPartialText)).click();
-                } catch (Exception e3) {
-                    // Try XPath as last resort
-                    wait.until(ExpectedConditions.elementToBeClickable(getStartedLinkByXPath)).click();
-                }
-            }
-        }
+        // One budget covers the whole fallback chain and the navigation that follows
+        WaitBudget budget = newBudget();
+        prepareLoad(SignupPage.class);
+        waitForAnyClickable(budget, getStartedChain).click();
         
         // Wait for navigation to complete
-        wait.until(ExpectedConditions.urlContains("/sign_up"));
+        waitUntil(ExpectedConditions.urlContains("/sign_up"), budget);
+        recordLoad(SignupPage.class, budget);
     }
 
     public void clickLoginLink() {
-        try {
-            // Try primary locator first
-            wait.until(ExpectedConditions.elementToBeClickable(loginLink)).click();
-        } catch (Exception e) {
-            try {
-                // Try by text
-                wait.until(ExpectedConditions.elementToBeClickable(loginLinkByText)).click();
-            } catch (Exception e2) {
-                try {
-                    // Try by partial text
-                    wait.until(ExpectedConditions.elementToBeClickable(loginLinkByPartialText)).click();
-                } catch (Exception e3) {
-                    // Try XPath as last resort
-                    wait.until(ExpectedConditions.elementToBeClickable(loginLinkByXPath)).click();
-                }
-            }
-        }
+        // One budget covers the whole fallback chain and the navigation that follows
+        WaitBudget budget = newBudget();
+        prepareLoad(LoginPage.class);
+        waitForAnyClickable(budget, loginChain).click();
         
         // Wait for navigation to complete
-        wait.until(ExpectedConditions.urlContains("/sign_in"));
+        waitUntil(ExpectedConditions.urlContains("/sign_in"), budget);
+        recordLoad(LoginPage.class, budget);
     }
 
     public void clickContactUsLink() {
-        try {
-            // Try primary locator first
-            scrollAndClick(contactUsLink);
-        } catch (Exception e) {
-            try {
-                // Try by text
-                scrollAndClick(contactUsLinkByText);
-            } catch (Exception e2) {
-                try {
-                    // Try by partial text
-                    scrollAndClick(contactUsLinkByPartialText);
-                } catch (Exception e3) {
-                    // Try XPath as last resort
-                    scrollAndClick(contactUsLinkByXPath);
-                }
-            }
-        }
+        // One budget covers the whole fallback chain and the navigation that follows
+        WaitBudget budget = newBudget();
+        prepareLoad(ContactsPage.class);
+        scrollAndClick(waitForAnyVisible(budget, contactUsChain));
         
         // Wait for navigation to complete
-        wait.until(ExpectedConditions.urlContains("/contacts"));
+        waitUntil(ExpectedConditions.urlContains("/contacts"), budget);
+        recordLoad(ContactsPage.class, budget);
     }
 
     public boolean verifyPage() {
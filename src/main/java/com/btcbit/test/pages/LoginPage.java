@@ -1,16 +1,26 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.BlockResources;
+import com.btcbit.test.network.ResourceProfile;
+import com.btcbit.test.support.TabTask;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+import java.time.Duration;
+
+// The login form may be protected by reCAPTCHA, so it keeps loading
+@BlockResources(ResourceProfile.FORMS)
 public class LoginPage extends BasePage {
+    private static final Duration ERROR_MESSAGE_TIMEOUT = Duration.ofSeconds(5);
+    
     private final By loginEmailField = By.cssSelector("input[type='email']");
     private final By loginPasswordField = By.cssSelector("input[type='password']");
     private final By loginButton = By.cssSelector("button[type='submit']");
     private final By loginErrorMessage = By.cssSelector("div.bg-error.fs-16-inter-medium");
     
-    private final String signInUrl = "https://btcbit.net/sign_in/";
+    private final String signInUrl = TestConfig.baseUrl() + "/sign_in/";
     private final String expectedLoginErrorText = "Invalid email or password. Try clicking 'Forgot Password' if you're having trouble signing in.";
     
     public LoginPage(WebDriver driver) {
@@ -31,6 +41,22 @@ public class LoginPage extends BasePage {
         }
     }
     
+    /**
+     * Task that loads the login page in its own tab and reports once the form is usable
+     * @return task that yields true when the email and password fields are displayed
+     */
+    public TabTask<Boolean> pageLoadTask() {
+        return TabTask.of("Login page load", () -> startLoad(signInUrl, LoginPage.class), () -> {
+            boolean loaded = signInUrl.equals(driver.getCurrentUrl()) && isDocumentComplete()
+                    && isElementDisplayed(loginEmailField) && isElementDisplayed(loginPasswordField);
+            if (!loaded) {
+                return null;
+            }
+            recordLoad(LoginPage.class, newBudget());
+            return Boolean.TRUE;
+        }, this::measurePendingLoads);
+    }
+    
     /**
      * Enters email in the login field
      * @param email Email for login
@@ -56,32 +82,17 @@ public class LoginPage extends BasePage {
     
     /**
      * Checks if login error message is present and contains expected text
+     * Waits up to 5 seconds for the message but returns as soon as it appears
      * @return true if error message is displayed with correct text
      */
     public boolean isLoginErrorPresent() {
         try {
-            // Увеличиваем время ожидания до 5 секунд
-            try {
-                Thread.sleep(5000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-            
-            boolean isDisplayed = isElementDisplayed(loginErrorMessage);
+            boolean isDisplayed = isElementDisplayed(loginErrorMessage, ERROR_MESSAGE_TIMEOUT);
             if (!isDisplayed) {
                 return false;
             }
             
-            String actualText = driver.findElement(loginErrorMessage).getText().trim();
-            boolean hasCorrectText = actualText.equals(expectedLoginErrorText);
-            
-            if (!hasCorrectText) {
-                System.out.println("Error message text mismatch.");
-                System.out.println("Expected: " + expectedLoginErrorText);
-                System.out.println("Actual: " + actualText);
-            }
-            
-            return hasCorrectText;
+            return hasExpectedErrorText();
         } catch (Exception e) {
             System.out.println("Failed to check login error message: " + e.getMessage());
             return false;
@@ -100,21 +111,56 @@ public class LoginPage extends BasePage {
             return false;
         }
         
+        submitLogin(email, password);
+        
+        // Check if login failed (error message present)
+        return !(isElementDisplayed(loginErrorMessage) && hasExpectedErrorText());
+    }
+    
+    /**
+     * Fills in and submits the login form, then waits for the error message or the redirect,
+     * whichever comes first
+     * @param email Email for login
+     * @param password Password for login
+     * @return nanoseconds from the submit click to the outcome, or -1 if there was none within the wait budget
+     */
+    public long submitLogin(String email, String password) {
         // Fill in the login form
         enterEmail(email);
         enterPassword(password);
         
         // Submit the login form
+        long start = System.nanoTime();
         clickLoginButton();
         
-        // Wait a bit for error message or redirect
         try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            waitUntil(ExpectedConditions.or(
+                    ExpectedConditions.visibilityOfElementLocated(loginErrorMessage),
+                    ExpectedConditions.not(ExpectedConditions.urlToBe(signInUrl))), newBudget());
+            return System.nanoTime() - start;
+        } catch (Exception e) {
+            System.out.println("No login outcome within the wait budget: " + e.getMessage());
+            return -1;
         }
+    }
+    
+    /**
+     * @return address of the login page
+     */
+    public String getUrl() {
+        return signInUrl;
+    }
+    
+    private boolean hasExpectedErrorText() {
+        String actualText = driver.findElement(loginErrorMessage).getText().trim();
+        boolean hasCorrectText = actualText.equals(expectedLoginErrorText);
         
-        // Check if login failed (error message present)
-        return !isLoginErrorPresent();
+        if (!hasCorrectText) {
+            System.out.println("Error message text mismatch.");
+            System.out.println("Expected: " + expectedLoginErrorText);
+            System.out.println("Actual: " + actualText);
+        }
+        
+        return hasCorrectText;
     }
-} 
\ No newline at end of file
+}
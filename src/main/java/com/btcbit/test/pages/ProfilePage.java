@@ -1,15 +1,21 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.BlockResources;
+import com.btcbit.test.network.ResourceProfile;
+import com.btcbit.test.support.AuthSessionCache;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 
+// Profile checks read the header and the email text
+@BlockResources(ResourceProfile.TEXT_ONLY)
 public class ProfilePage extends BasePage {
     // Profile page elements
     private final By personalInfoHeader = By.cssSelector("h3.fs-22-manrope-semibold");
     private final By profileEmail = By.cssSelector("span.fs-18-manrope-semibold.mt-3.flex.items-center.text-black");
     
-    private final String profileUrl = "https://btcbit.net/profile/";
+    private final String profileUrl = TestConfig.baseUrl() + "/profile/";
     
     public ProfilePage(WebDriver driver) {
         super(driver);
@@ -22,6 +28,7 @@ public class ProfilePage extends BasePage {
     public boolean verifyPage() {
         try {
             wait.until(ExpectedConditions.urlToBe(profileUrl));
+            recordLoad(ProfilePage.class, newBudget());
             return driver.getCurrentUrl().equals(profileUrl);
         } catch (Exception e) {
             System.out.println("Failed to verify profile page URL: " + e.getMessage());
@@ -29,12 +36,34 @@ public class ProfilePage extends BasePage {
         }
     }
     
+    /**
+     * @return address of the profile page
+     */
+    public String getUrl() {
+        return profileUrl;
+    }
+    
+    /**
+     * Opens the profile page with a cached login session, skipping the UI login
+     * @param email login email the session was cached for
+     * @return true if the profile page was opened, false if a UI login is needed
+     */
+    public boolean openWithCachedSession(String email) {
+        prepareLoad(ProfilePage.class);
+        if (!AuthSessionCache.getInstance().restore(email, driver, profileUrl, personalInfoHeader)) {
+            return false;
+        }
+        recordLoad(ProfilePage.class, newBudget());
+        return true;
+    }
+    
     /**
      * Waits for profile page to load after registration or login
      */
     public void waitForPageLoad() {
         try {
             wait.until(ExpectedConditions.urlToBe(profileUrl));
+            recordLoad(ProfilePage.class, newBudget());
         } catch (Exception e) {
             System.out.println("Failed to wait for profile page load: " + e.getMessage());
         }
@@ -46,9 +75,12 @@ public class ProfilePage extends BasePage {
      */
     public boolean isPersonalInformationSectionVisible() {
         try {
-            boolean isDisplayed = isElementDisplayed(personalInfoHeader);
-            String headerText = driver.findElement(personalInfoHeader).getText().trim();
-            boolean hasCorrectText = headerText.equals("Personal information");
+            // In snapshot mode the text is read from the snapshot, which waits in the browser only
+            // if the header is not rendered yet
+            String headerText = isSnapshotMode()
+                    ? getSnapshotText(personalInfoHeader)
+                    : waitForElementVisible(personalInfoHeader).getText().trim();
+            boolean hasCorrectText = "Personal information".equals(headerText);
             
             if (!hasCorrectText) {
                 System.out.println("Personal information header text mismatch.");
@@ -56,7 +88,7 @@ public class ProfilePage extends BasePage {
                 System.out.println("Actual: " + headerText);
             }
             
-            return isDisplayed && hasCorrectText;
+            return hasCorrectText;
         } catch (Exception e) {
             System.out.println("Failed to check Personal Information section: " + e.getMessage());
             return false;
@@ -69,7 +101,9 @@ public class ProfilePage extends BasePage {
      */
     public String getDisplayedProfileEmail() {
         try {
-            return driver.findElement(profileEmail).getText().trim();
+            return isSnapshotMode()
+                    ? getSnapshotText(profileEmail)
+                    : waitForElementVisible(profileEmail).getText().trim();
         } catch (Exception e) {
             System.out.println("Failed to get profile email: " + e.getMessage());
             return null;
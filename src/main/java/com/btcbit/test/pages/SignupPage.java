@@ -1,11 +1,27 @@
 package com.btcbit.test.pages;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.BlockResources;
+import com.btcbit.test.network.ResourceProfile;
+import com.btcbit.test.support.HumanGate;
+import com.btcbit.test.support.LocatorCache;
+import com.btcbit.test.support.LocatorChain;
+import com.btcbit.test.support.TestDataFactory;
+import com.btcbit.test.support.WaitBudget;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import java.util.Scanner;
 
+import java.time.Duration;
+import java.util.List;
+
+// isCaptchaPresent() looks for the reCAPTCHA iframe, so it keeps loading
+@BlockResources(ResourceProfile.FORMS)
 public class SignupPage extends BasePage {
+    private static final Duration VALIDATION_ERROR_TIMEOUT = Duration.ofSeconds(1);
+    
     // Registration page element locators
     private final By emailField = By.cssSelector("input[type='email']");
     private final By passwordField = By.cssSelector("input[type='password']");
@@ -27,6 +43,17 @@ public class SignupPage extends BasePage {
     private final By agreeCheckboxByXPath = By.xpath("//input[@type='checkbox'][contains(@id, 'agree') or contains(@name, 'agree') or contains(@class, 'agree') or contains(@id, 'terms') or contains(@name, 'terms')]");
     private final By agreeCheckboxByLabel = By.xpath("//label[contains(text(), 'agree') or contains(text(), 'terms') or contains(text(), 'consent')]/input[@type='checkbox'] | //label[contains(text(), 'agree') or contains(text(), 'terms') or contains(text(), 'consent')]/preceding-sibling::input[@type='checkbox'] | //label[contains(text(), 'agree') or contains(text(), 'terms') or contains(text(), 'consent')]/following-sibling::input[@type='checkbox']");
     
+    // Fallback chain for the agreement checkbox; the strategy that worked last time is tried first
+    private final LocatorChain agreeCheckboxChain = new LocatorChain("SignupPage.agreeCheckbox")
+            .add("exact", agreeCheckboxExact)
+            .add("exactSvg", agreeCheckboxExactSvg)
+            .add("checkbox", agreeCheckbox)
+            .add("id", agreeCheckboxById)
+            .add("name", agreeCheckboxByName)
+            .add("class", agreeCheckboxByClass)
+            .add("xpath", agreeCheckboxByXPath)
+            .add("label", agreeCheckboxByLabel);
+    
     // CAPTCHA locators
     private final By captchaFrame = By.cssSelector("iframe[title*='recaptcha'], iframe[src*='recaptcha'], iframe[name*='recaptcha']");
     
@@ -35,8 +62,7 @@ public class SignupPage extends BasePage {
     private final By emailValidationErrorContains = By.xpath("//div[contains(text(), 'Email not valid')]");
     private final By emailValidationErrorByClass = By.cssSelector("div.bg-error");
     
-    private final String signUpUrl = "https://btcbit.net/sign_up/";
-    private final String EMAIL_DOMAIN = "@test.com";
+    private final String signUpUrl = TestConfig.baseUrl() + "/sign_up/";
     
     // Flag to enable/disable manual CAPTCHA input
     private boolean allowManualCaptchaInput = false;
@@ -60,19 +86,14 @@ public class SignupPage extends BasePage {
     }
     
     /**
-     * Generates email using first 3 characters from first name and last name
+     * Generates email using first 3 characters from first name and last name,
+     * made unique across threads and runs by {@link TestDataFactory}
      * @param firstName First name
      * @param lastName Last name
-     * @return Generated email in format: first3last3@test.com
+     * @return Generated email in format: first3last3.runId.sequence@test.com
      */
     public String generateEmail(String firstName, String lastName) {
-        // Take first 3 characters from first name
-        String first3 = firstName.length() >= 3 ? firstName.substring(0, 3) : firstName;
-        
-        // Take first 3 characters from last name
-        String last3 = lastName.length() >= 3 ? lastName.substring(0, 3) : lastName;
-        
-        return (first3 + last3).toLowerCase() + EMAIL_DOMAIN;
+        return TestDataFactory.getInstance().emailFor(firstName, lastName);
     }
     
     /**
@@ -109,142 +130,40 @@ public class SignupPage extends BasePage {
     
     /**
      * Checks the "I agree" checkbox
-     * Tries multiple locator strategies to find and click the checkbox
+     * Tries multiple locator strategies to find and click the checkbox,
+     * all within a single wait budget
      */
     public void checkAgreeCheckbox() {
-        // First try the exact locator found through dev tools
-        try {
-            System.out.println("Trying to click checkbox with exact locator from dev tools");
-            scrollAndClick(agreeCheckboxExact);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox with exact locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying to click checkbox SVG with exact locator from dev tools");
-            scrollAndClick(agreeCheckboxExactSvg);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox SVG with exact locator: " + e.getMessage());
-        }
-        
-        // Try JavaScript click for exact locator
-        try {
-            System.out.println("Trying JavaScript click with exact locator from dev tools");
-            clickWithJavaScript(agreeCheckboxExact);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with exact locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying JavaScript click with exact SVG locator from dev tools");
-            clickWithJavaScript(agreeCheckboxExactSvg);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with exact SVG locator: " + e.getMessage());
-        }
-        
-        // Attempt to find and click the checkbox using different locators
-        try {
-            System.out.println("Trying to click checkbox with primary locator");
-            scrollAndClick(agreeCheckbox);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox with primary locator: " + e.getMessage());
-        }
-        
-        // Try alternative locators
-        try {
-            System.out.println("Trying to click checkbox by ID");
-            scrollAndClick(agreeCheckboxById);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox by ID: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying to click checkbox by name");
-            scrollAndClick(agreeCheckboxByName);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox by name: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying to click checkbox by class");
-            scrollAndClick(agreeCheckboxByClass);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox by class: " + e.getMessage());
-        }
+        WaitBudget budget = newBudget();
         
+        // First try a regular click on the first visible match, exact dev tools locators first
         try {
-            System.out.println("Trying to click checkbox by XPath");
-            scrollAndClick(agreeCheckboxByXPath);
+            System.out.println("Trying to click the agreement checkbox with a regular click");
+            scrollAndClick(waitForAnyVisible(budget, agreeCheckboxChain));
             return;
         } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox by XPath: " + e.getMessage());
+            System.out.println("Failed to check the agreement checkbox with a regular click: " + e.getMessage());
         }
         
-        try {
-            System.out.println("Trying to click checkbox by label");
-            scrollAndClick(agreeCheckboxByLabel);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed to check the agreement checkbox by label: " + e.getMessage());
-        }
-        
-        // If all locators failed, try JavaScript for all locators
-        try {
-            System.out.println("Trying JavaScript click with primary locator");
-            clickWithJavaScript(agreeCheckbox);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with primary locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying JavaScript click with ID locator");
-            clickWithJavaScript(agreeCheckboxById);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with ID locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying JavaScript click with name locator");
-            clickWithJavaScript(agreeCheckboxByName);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with name locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying JavaScript click with class locator");
-            clickWithJavaScript(agreeCheckboxByClass);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with class locator: " + e.getMessage());
-        }
-        
-        try {
-            System.out.println("Trying JavaScript click with XPath locator");
-            clickWithJavaScript(agreeCheckboxByXPath);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with XPath locator: " + e.getMessage());
+        // Styled checkboxes often hide the real input, so fall back to a JavaScript click
+        // on the first element that is present, visible or not
+        for (LocatorChain.Strategy strategy : LocatorCache.getInstance().order(agreeCheckboxChain)) {
+            By locator = strategy.getLocator();
+            List<WebElement> elements = driver.findElements(locator);
+            if (elements.isEmpty()) {
+                continue;
+            }
+            try {
+                System.out.println("Trying JavaScript click with locator: " + locator);
+                clickWithJavaScript(elements.get(0));
+                LocatorCache.getInstance().recordWin(agreeCheckboxChain, strategy);
+                return;
+            } catch (Exception e) {
+                System.out.println("Failed JavaScript click with locator " + locator + ": " + e.getMessage());
+            }
         }
         
-        try {
-            System.out.println("Trying JavaScript click with label locator");
-            clickWithJavaScript(agreeCheckboxByLabel);
-            return;
-        } catch (Exception e) {
-            System.out.println("Failed JavaScript click with label locator: " + e.getMessage());
-            System.out.println("All attempts to check the agreement checkbox failed");
-        }
+        System.out.println("All attempts to check the agreement checkbox failed");
     }
     
     /**
@@ -261,41 +180,18 @@ public class SignupPage extends BasePage {
     
     /**
      * Waits for manual CAPTCHA input from the user
+     * The flow is parked on a {@link HumanGate}; other sessions keep running meanwhile
      * @param timeoutSeconds maximum wait time in seconds
      * @return true if user confirmed CAPTCHA input, false if timeout occurred
      */
     public boolean waitForManualCaptchaInput(int timeoutSeconds) {
-        System.out.println("=================================================================");
-        System.out.println("CAPTCHA detected! Manual input required.");
-        System.out.println("Please solve the CAPTCHA in the open browser.");
-        System.out.println("You have " + timeoutSeconds + " seconds.");
-        System.out.println("After solving the CAPTCHA, press Enter in the console.");
-        System.out.println("=================================================================");
-        
-        Scanner scanner = new Scanner(System.in);
-        
-        // Create a separate thread for waiting for user input
-        Thread inputThread = new Thread(() -> {
-            scanner.nextLine();
-        });
-        
-        // Start the thread
-        inputThread.start();
-        
-        // Wait for the thread to complete within the specified time
-        try {
-            inputThread.join(timeoutSeconds * 1000);
-            if (inputThread.isAlive()) {
-                // If the thread is still alive, the timeout has occurred
-                System.out.println("Manual CAPTCHA input timeout expired.");
-                inputThread.interrupt();
-                return false;
-            }
-            return true;
-        } catch (InterruptedException e) {
-            System.out.println("Manual CAPTCHA input wait was interrupted: " + e.getMessage());
-            return false;
+        boolean solved = HumanGate.getInstance().await(
+                "Solve the CAPTCHA in the browser showing " + driver.getCurrentUrl(),
+                Duration.ofSeconds(timeoutSeconds));
+        if (!solved) {
+            System.out.println("Manual CAPTCHA input timeout expired.");
         }
+        return solved;
     }
     
     /**
@@ -311,11 +207,12 @@ public class SignupPage extends BasePage {
      */
     public boolean isEmailValidationErrorPresent() {
         try {
-            // Wait a bit for the error to appear
+            // Give the error up to a second to appear, returning as soon as it does
             try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+                waitForAnyVisible(WaitBudget.of(VALIDATION_ERROR_TIMEOUT),
+                        emailValidationError, emailValidationErrorContains, emailValidationErrorByClass);
+            } catch (TimeoutException e) {
+                return false;
             }
             
             // Try exact text match first
@@ -375,8 +272,8 @@ public class SignupPage extends BasePage {
             System.out.println("=================================================================");
             
             if (allowManualCaptchaInput) {
-                // Wait for manual CAPTCHA input from the user (maximum 60 seconds)
-                boolean captchaHandled = waitForManualCaptchaInput(60);
+                // Wait for manual CAPTCHA input from the user (60 seconds by default)
+                boolean captchaHandled = waitForManualCaptchaInput((int) TestConfig.humanGateTimeout().getSeconds());
                 if (!captchaHandled) {
                     System.out.println("Failed to wait for manual CAPTCHA input. Test aborted.");
                     return false;
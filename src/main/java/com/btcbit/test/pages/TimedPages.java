@@ -0,0 +1,100 @@
+package com.btcbit.test.pages;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.support.ActionMetrics;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import net.bytebuddy.implementation.bind.annotation.Origin;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.SuperCall;
+import org.openqa.selenium.WebDriver;
+
+import java.lang.reflect.Method;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isProtected;
+import static net.bytebuddy.matcher.ElementMatchers.isPublic;
+import static net.bytebuddy.matcher.ElementMatchers.isStatic;
+import static net.bytebuddy.matcher.ElementMatchers.namedOneOf;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Creates page objects whose public methods and the {@link BasePage} primitives named in
+ * {@link #PRIMITIVES} are timed into {@link ActionMetrics} under "PageClass.method".
+ * The page is a generated subclass, so calls a page makes to its own methods are timed as well.
+ * Only the outermost call per key is recorded: an overload delegating to another one, or a
+ * method calling itself, counts once with the time of the whole call.
+ * With -Dbtcbit.metrics.enabled=false plain page objects are returned.
+ */
+public final class TimedPages {
+    private static final String[] PRIMITIVES = {
+            "click", "sendKeys", "waitForElementVisible", "scrollAndClick", "clickWithJavaScript"};
+    private static final Map<Class<?>, Class<?>> TIMED_TYPES = new ConcurrentHashMap<>();
+
+    private TimedPages() {
+    }
+
+    /**
+     * @param type page object class with a (WebDriver) constructor
+     * @param driver driver the page is bound to
+     * @return new page object
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends BasePage> T create(Class<T> type, WebDriver driver) {
+        Class<? extends T> implementation = TestConfig.metricsEnabled()
+                ? (Class<? extends T>) TIMED_TYPES.computeIfAbsent(type, TimedPages::subclass)
+                : type;
+        try {
+            return implementation.getConstructor(WebDriver.class).newInstance(driver);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create page " + type.getSimpleName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Class<?> subclass(Class<?> type) {
+        return new ByteBuddy()
+                .subclass(type)
+                .method(isPublic().or(isProtected().and(namedOneOf(PRIMITIVES)))
+                        .and(not(isStatic())).and(not(isDeclaredBy(Object.class))))
+                .intercept(MethodDelegation.to(new ActionTimer(type.getSimpleName())))
+                .make()
+                .load(type.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                .getLoaded();
+    }
+
+    /**
+     * Times one intercepted page method; public only so that generated classes can call it
+     */
+    public static class ActionTimer {
+        // Keys with a timed call in progress on this thread
+        private static final ThreadLocal<Set<String>> ACTIVE = ThreadLocal.withInitial(HashSet::new);
+
+        private final String page;
+
+        ActionTimer(String page) {
+            this.page = page;
+        }
+
+        @RuntimeType
+        public Object time(@Origin Method method, @SuperCall Callable<?> call) throws Exception {
+            String action = page + "." + method.getName();
+            Set<String> active = ACTIVE.get();
+            if (!active.add(action)) {
+                return call.call();
+            }
+            long start = System.nanoTime();
+            try {
+                return call.call();
+            } finally {
+                active.remove(action);
+                ActionMetrics.getInstance().record(action, System.nanoTime() - start);
+            }
+        }
+    }
+}
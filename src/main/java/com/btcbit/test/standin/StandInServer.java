@@ -0,0 +1,228 @@
+package com.btcbit.test.standin;
+
+import com.btcbit.test.config.TestConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded local stand-in of the site, serving fixture copies of the home, sign-in, sign-up,
+ * profile and contacts pages. Login is scripted: the configured test credentials succeed and
+ * set a session cookie, anything else gets the site's error message. Runs are fast and
+ * deterministic without network access and never load production.
+ */
+public class StandInServer implements AutoCloseable {
+    private static final String SESSION_COOKIE = "standin_session";
+    private static final String FIXTURES = "/standin/";
+    private static StandInServer shared;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String email;
+    private final String password;
+    private final Map<String, String> sessions = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> fixtures = new ConcurrentHashMap<>();
+
+    /**
+     * Starts the server on a free local port
+     * @param email email that logs in successfully
+     * @param password password that logs in successfully
+     * @throws IOException if the server cannot be started
+     */
+    public StandInServer(String email, String password) throws IOException {
+        this(0, email, password);
+    }
+
+    /**
+     * Starts the server
+     * @param port local port, or 0 for a free one
+     * @param email email that logs in successfully
+     * @param password password that logs in successfully
+     * @throws IOException if the server cannot be started
+     */
+    public StandInServer(int port, String email, String password) throws IOException {
+        this.email = email;
+        this.password = password;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stand-in-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        System.out.println("Stand-in server started at " + getBaseUrl());
+    }
+
+    /**
+     * Starts one shared server per JVM when -Dbtcbit.standin=true and points
+     * {@link TestConfig#baseUrl()} at it. Does nothing otherwise.
+     */
+    public static synchronized void startIfEnabled() {
+        if (!TestConfig.standInEnabled() || shared != null) {
+            return;
+        }
+        try {
+            shared = new StandInServer(TestConfig.loginEmail(), TestConfig.loginPassword());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start stand-in server", e);
+        }
+        TestConfig.setBaseUrl(shared.getBaseUrl());
+        Runtime.getRuntime().addShutdownHook(new Thread(shared::close, "stand-in-server-stop"));
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if ("POST".equals(method) && "/api/login".equals(path)) {
+                handleLogin(exchange);
+            } else if ("POST".equals(method) && "/api/sign_up".equals(path)) {
+                sendJson(exchange, 400, "{\"error\":\"Email not valid! Please try other\"}");
+            } else if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                send(exchange, 405, "text/plain", "Method not allowed".getBytes(StandardCharsets.UTF_8));
+            } else if ("/".equals(path)) {
+                sendFixture(exchange, "index.html");
+            } else if ("/sign_in/".equals(path)) {
+                sendFixture(exchange, "sign_in.html");
+            } else if ("/sign_up/".equals(path)) {
+                sendFixture(exchange, "sign_up.html");
+            } else if ("/contacts/".equals(path)) {
+                sendFixture(exchange, "contacts.html");
+            } else if ("/profile/".equals(path)) {
+                handleProfile(exchange);
+            } else if ("/robots.txt".equals(path)) {
+                send(exchange, 200, "text/plain", "User-agent: *\nDisallow: /\n".getBytes(StandardCharsets.UTF_8));
+            } else if (path.matches("/(sign_in|sign_up|contacts|profile)")) {
+                redirect(exchange, path + "/");
+            } else {
+                send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(readBody(exchange));
+        if (email.equals(form.get("email")) && password.equals(form.get("password"))) {
+            String token = UUID.randomUUID().toString();
+            sessions.put(token, email);
+            exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly");
+            sendJson(exchange, 200, "{\"redirect\":\"/profile/\"}");
+        } else {
+            sendJson(exchange, 401, "{\"error\":\"Invalid email or password. "
+                    + "Try clicking 'Forgot Password' if you're having trouble signing in.\"}");
+        }
+    }
+
+    private void handleProfile(HttpExchange exchange) throws IOException {
+        String user = sessions.get(sessionToken(exchange));
+        if (user == null) {
+            redirect(exchange, "/sign_in/");
+            return;
+        }
+        String page = new String(fixture("profile.html"), StandardCharsets.UTF_8).replace("{{email}}", user);
+        send(exchange, 200, "text/html; charset=utf-8", page.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String sessionToken(HttpExchange exchange) {
+        for (String header : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.emptyList())) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && SESSION_COOKIE.equals(pair[0])) {
+                    return pair[1];
+                }
+            }
+        }
+        return "";
+    }
+
+    private void sendFixture(HttpExchange exchange, String name) throws IOException {
+        send(exchange, 200, "text/html; charset=utf-8", fixture(name));
+    }
+
+    private byte[] fixture(String name) throws IOException {
+        byte[] cached = fixtures.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        try (InputStream in = StandInServer.class.getResourceAsStream(FIXTURES + name)) {
+            if (in == null) {
+                throw new IOException("Missing stand-in fixture " + name);
+            }
+            byte[] content = in.readAllBytes();
+            fixtures.put(name, content);
+            return content;
+        }
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        send(exchange, status, "application/json", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("Cache-Control", "no-store");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+}
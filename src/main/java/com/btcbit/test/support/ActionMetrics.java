@@ -0,0 +1,84 @@
+package com.btcbit.test.support;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency histograms of page actions, keyed by "PageClass.method"
+ */
+public class ActionMetrics {
+    private static final ActionMetrics INSTANCE = new ActionMetrics();
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    public static ActionMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds one measurement for an action
+     * @param action action key, e.g. "LoginPage.loginUser"
+     * @param nanos duration in nanoseconds
+     */
+    public void record(String action, long nanos) {
+        histograms.computeIfAbsent(action, key -> new LatencyHistogram()).recordNanos(nanos);
+    }
+
+    /**
+     * @return histograms sorted by action
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Writes actions.json and actions.txt with count, mean, p50, p95, p99 and max per action
+     * @param directory report directory, created if missing
+     */
+    public void writeReports(Path directory) {
+        Map<String, LatencyHistogram> sorted = getHistograms();
+        if (sorted.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> json = new ArrayList<>();
+        StringBuilder text = new StringBuilder(String.format("%-50s %8s %10s %10s %10s %10s %10s%n",
+                "action", "count", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+        for (Map.Entry<String, LatencyHistogram> entry : sorted.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("action", entry.getKey());
+            row.put("count", histogram.getCount());
+            row.put("meanMs", toMillis(histogram.getMeanMicros()));
+            row.put("p50Ms", toMillis(histogram.getPercentileMicros(50)));
+            row.put("p95Ms", toMillis(histogram.getPercentileMicros(95)));
+            row.put("p99Ms", toMillis(histogram.getPercentileMicros(99)));
+            row.put("maxMs", toMillis(histogram.getMaxMicros()));
+            json.add(row);
+            text.append(String.format("%-50s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), histogram.getCount(), row.get("meanMs"), row.get("p50Ms"),
+                    row.get("p95Ms"), row.get("p99Ms"), row.get("maxMs")));
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("actions.json"), new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve("actions.txt"), text.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Action latency report written to " + directory.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.println("Failed to write action latency report: " + e.getMessage());
+        }
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,228 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.driver.TracedWait;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the cookies and web storage of a logged-in browser so later sessions can skip the UI login.
+ * A cached session is dropped when it expires or when the server or the page's script redirects it to /sign_in/.
+ */
+public class AuthSessionCache {
+    private static final AuthSessionCache INSTANCE = new AuthSessionCache();
+    private static final String SIGN_IN_PATH = "/sign_in";
+    // The page's script may still redirect to sign in after the load; this long is waited for the outcome
+    private static final Duration LANDING_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration LANDING_POLL_INTERVAL = Duration.ofMillis(100);
+
+    private static final String CAPTURE_STORAGE_SCRIPT =
+            "function dump(storage) {"
+            + "  var result = {};"
+            + "  for (var i = 0; i < storage.length; i++) {"
+            + "    var key = storage.key(i);"
+            + "    result[key] = storage.getItem(key);"
+            + "  }"
+            + "  return result;"
+            + "}"
+            + "return {local: dump(window.localStorage), session: dump(window.sessionStorage)};";
+
+    private static final String RESTORE_STORAGE_SCRIPT =
+            "var local = arguments[0], session = arguments[1];"
+            + "Object.keys(local).forEach(function (key) { window.localStorage.setItem(key, local[key]); });"
+            + "Object.keys(session).forEach(function (key) { window.sessionStorage.setItem(key, session[key]); });";
+
+    private final Map<String, AuthSession> sessions = new ConcurrentHashMap<>();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public static AuthSessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Captures the authentication state of a browser that has just logged in
+     * @param user key of the cached session, usually the login email
+     * @param driver logged-in driver, still on the site's origin
+     */
+    @SuppressWarnings("unchecked")
+    public void store(String user, WebDriver driver) {
+        try {
+            URI current = URI.create(driver.getCurrentUrl());
+            Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+            Map<String, Object> storage = (Map<String, Object>)
+                    ((JavascriptExecutor) driver).executeScript(CAPTURE_STORAGE_SCRIPT);
+
+            AuthSession session = new AuthSession(origin(current), cookies,
+                    (Map<String, Object>) storage.get("local"),
+                    (Map<String, Object>) storage.get("session"),
+                    expiryOf(cookies));
+            sessions.put(user, session);
+            System.out.println("Cached authenticated session for " + user + " (" + cookies.size()
+                    + " cookies, expires " + session.expiresAt + ")");
+        } catch (Exception e) {
+            System.out.println("Failed to cache authenticated session: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Injects a cached session into the driver and opens the target page
+     * @param user key of the cached session
+     * @param driver driver to authenticate
+     * @param targetUrl page that requires authentication, e.g. the profile URL
+     * @param marker element only the authenticated target page shows
+     * @return true if the driver is on the target page with the cached session,
+     *         false if there was no valid session and a UI login is needed
+     */
+    public boolean restore(String user, WebDriver driver, String targetUrl, By marker) {
+        AuthSession session = sessions.get(user);
+        if (session == null) {
+            return false;
+        }
+        if (Instant.now().isAfter(session.expiresAt)) {
+            System.out.println("Cached session for " + user + " has expired");
+            invalidate(user);
+            return false;
+        }
+        if (isRedirectedToSignIn(session, targetUrl)) {
+            System.out.println("Cached session for " + user + " was rejected by the server");
+            invalidate(user);
+            return false;
+        }
+
+        try {
+            // Cookies and storage can only be set while on the site's origin;
+            // a small static resource is cheaper to load than a page
+            driver.get(session.origin + "/robots.txt");
+            for (Cookie cookie : session.cookies) {
+                try {
+                    driver.manage().addCookie(cookie);
+                } catch (Exception e) {
+                    System.out.println("Failed to restore cookie " + cookie.getName() + ": " + e.getMessage());
+                }
+            }
+            ((JavascriptExecutor) driver).executeScript(RESTORE_STORAGE_SCRIPT,
+                    session.localStorage, session.sessionStorage);
+
+            driver.get(targetUrl);
+            if (!landsOnTarget(driver, marker)) {
+                System.out.println("Cached session for " + user + " was redirected to sign in");
+                invalidate(user);
+                return false;
+            }
+            System.out.println("Restored cached session for " + user);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Failed to restore cached session: " + e.getMessage());
+            invalidate(user);
+            return false;
+        }
+    }
+
+    public void invalidate(String user) {
+        sessions.remove(user);
+    }
+
+    public boolean contains(String user) {
+        return sessions.containsKey(user);
+    }
+
+    /**
+     * Waits for either the marker of the target page or a client-side redirect to sign in
+     * @return true if the marker appeared, false on a redirect or when neither happened in time
+     */
+    private static boolean landsOnTarget(WebDriver driver, By marker) {
+        try {
+            // A wait treats false as "not yet", so the outcome is the URL the page settled on
+            String landed = new TracedWait(driver, LANDING_TIMEOUT, LANDING_POLL_INTERVAL).until(d -> {
+                String url = d.getCurrentUrl();
+                return url.contains(SIGN_IN_PATH) || !d.findElements(marker).isEmpty() ? url : null;
+            });
+            return !landed.contains(SIGN_IN_PATH);
+        } catch (TimeoutException e) {
+            System.out.println("Neither the target page nor sign in appeared within " + LANDING_TIMEOUT.getSeconds() + " s");
+            return false;
+        }
+    }
+
+    private boolean isRedirectedToSignIn(AuthSession session, String targetUrl) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(targetUrl))
+                .timeout(Duration.ofSeconds(10))
+                .header("Cookie", session.cookieHeader())
+                .GET()
+                .build();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            String location = response.headers().firstValue("Location").orElse("");
+            return response.statusCode() / 100 == 3 && location.contains(SIGN_IN_PATH);
+        } catch (IOException e) {
+            // The probe is only an early check; the browser navigation decides in the end
+            System.out.println("Session probe failed: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String origin(URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static Instant expiryOf(Set<Cookie> cookies) {
+        Instant expiry = Instant.now().plus(Duration.ofMinutes(TestConfig.authSessionMaxAgeMinutes()));
+        for (Cookie cookie : cookies) {
+            if (cookie.getExpiry() != null && cookie.getExpiry().toInstant().isBefore(expiry)) {
+                expiry = cookie.getExpiry().toInstant();
+            }
+        }
+        return expiry;
+    }
+
+    private static class AuthSession {
+        private final String origin;
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+        private final Instant expiresAt;
+
+        AuthSession(String origin, Set<Cookie> cookies, Map<String, Object> localStorage,
+                    Map<String, Object> sessionStorage, Instant expiresAt) {
+            this.origin = origin;
+            this.cookies = Collections.unmodifiableSet(cookies);
+            this.localStorage = localStorage == null ? Collections.emptyMap() : new HashMap<>(localStorage);
+            this.sessionStorage = sessionStorage == null ? Collections.emptyMap() : new HashMap<>(sessionStorage);
+            this.expiresAt = expiresAt;
+        }
+
+        String cookieHeader() {
+            StringBuilder header = new StringBuilder();
+            for (Cookie cookie : cookies) {
+                if (header.length() > 0) {
+                    header.append("; ");
+                }
+                header.append(cookie.getName()).append('=').append(cookie.getValue());
+            }
+            return header.toString();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.btcbit.test.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates a batch of {@link DomCheck}s inside the browser with a single executeScript call,
+ * instead of one findElement/isDisplayed/getText round trip per field.
+ */
+public class BatchDomVerifier {
+    private static final String BATCH_SCRIPT =
+            "var checks = arguments[0];"
+            + "function byLinkText(value, partial) {"
+            + "  var links = document.getElementsByTagName('a');"
+            + "  for (var i = 0; i < links.length; i++) {"
+            + "    var text = (links[i].innerText || '').trim();"
+            + "    if (partial ? text.indexOf(value) >= 0 : text === value) { return links[i]; }"
+            + "  }"
+            + "  return null;"
+            + "}"
+            + "function find(using, value) {"
+            + "  switch (using) {"
+            + "    case 'css selector': return document.querySelector(value);"
+            + "    case 'xpath': return document.evaluate(value, document, null,"
+            + "        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+            + "    case 'link text': return byLinkText(value, false);"
+            + "    case 'partial link text': return byLinkText(value, true);"
+            + "    case 'tag name': return document.getElementsByTagName(value)[0] || null;"
+            + "  }"
+            + "  throw new Error('Unsupported locator strategy: ' + using);"
+            + "}"
+            + "function displayed(element) {"
+            + "  if (element.checkVisibility) {"
+            + "    return element.checkVisibility({checkOpacity: true, checkVisibilityCSS: true});"
+            + "  }"
+            + "  var style = window.getComputedStyle(element);"
+            + "  return style.display !== 'none' && style.visibility !== 'hidden'"
+            + "      && element.getClientRects().length > 0;"
+            + "}"
+            + "return checks.map(function (check) {"
+            + "  try {"
+            + "    var element = find(check.using, check.value);"
+            + "    if (!element) { return {found: false, displayed: false, text: null}; }"
+            + "    return {found: true, displayed: displayed(element),"
+            + "        text: (element.innerText || element.textContent || '').trim()};"
+            + "  } catch (e) {"
+            + "    return {found: false, displayed: false, text: null, error: String(e)};"
+            + "  }"
+            + "});";
+
+    private final WebDriver driver;
+
+    public BatchDomVerifier(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Runs all checks in one round trip to the browser
+     * @param checks checks to evaluate
+     * @return per-field results, in the order of the checks
+     */
+    @SuppressWarnings("unchecked")
+    public DomCheckReport verify(List<DomCheck> checks) {
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        for (DomCheck check : checks) {
+            Map<String, Object> argument = new HashMap<>();
+            argument.put("using", check.getUsing());
+            argument.put("value", check.getValue());
+            arguments.add(argument);
+        }
+
+        List<Map<String, Object>> raw = (List<Map<String, Object>>)
+                ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, arguments);
+
+        List<DomCheckResult> results = new ArrayList<>();
+        for (int i = 0; i < checks.size(); i++) {
+            Map<String, Object> entry = raw.get(i);
+            if (entry.get("error") != null) {
+                System.out.println("Failed to evaluate " + checks.get(i) + ": " + entry.get("error"));
+            }
+            results.add(new DomCheckResult(checks.get(i),
+                    Boolean.TRUE.equals(entry.get("found")),
+                    Boolean.TRUE.equals(entry.get("displayed")),
+                    (String) entry.get("text")));
+        }
+        return new DomCheckReport(results);
+    }
+}
@@ -0,0 +1,79 @@
+package com.btcbit.test.support;
+
+import org.openqa.selenium.By;
+
+/**
+ * Declarative check of one page element: it must be present and displayed and,
+ * if an expected text is given, its text must contain it.
+ */
+public class DomCheck {
+    private final String name;
+    private final By locator;
+    private final String expectedText;
+
+    /**
+     * @param name human readable field name used in reports
+     * @param locator element locator; must be a standard W3C locator (css, xpath, link text, ...)
+     * @param expectedText text the element must contain, or null to only check visibility
+     */
+    public DomCheck(String name, By locator, String expectedText) {
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated outside WebDriver: " + locator);
+        }
+        this.name = name;
+        this.locator = locator;
+        this.expectedText = expectedText;
+    }
+
+    /**
+     * Creates a check that only requires the element to be displayed
+     * @param name human readable field name
+     * @param locator element locator
+     * @return visibility check
+     */
+    public static DomCheck visible(String name, By locator) {
+        return new DomCheck(name, locator, null);
+    }
+
+    /**
+     * Creates a check that requires the element to be displayed and contain the text
+     * @param name human readable field name
+     * @param locator element locator
+     * @param expectedText text the element must contain
+     * @return text check
+     */
+    public static DomCheck containsText(String name, By locator, String expectedText) {
+        return new DomCheck(name, locator, expectedText);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public By getLocator() {
+        return locator;
+    }
+
+    public String getExpectedText() {
+        return expectedText;
+    }
+
+    /**
+     * @return W3C locator strategy, e.g. "css selector" or "xpath"
+     */
+    public String getUsing() {
+        return ((By.Remotable) locator).getRemoteParameters().using();
+    }
+
+    /**
+     * @return W3C locator value, e.g. the selector or expression
+     */
+    public String getValue() {
+        return String.valueOf(((By.Remotable) locator).getRemoteParameters().value());
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + locator + "]" + (expectedText == null ? "" : " containing '" + expectedText + "'");
+    }
+}
@@ -0,0 +1,55 @@
+package com.btcbit.test.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-field results of a batch of {@link DomCheck}s
+ */
+public class DomCheckReport {
+    private final List<DomCheckResult> results;
+
+    public DomCheckReport(List<DomCheckResult> results) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+    }
+
+    public List<DomCheckResult> getResults() {
+        return results;
+    }
+
+    public boolean isAllPassed() {
+        for (DomCheckResult result : results) {
+            if (!result.isPassed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public List<DomCheckResult> getFailures() {
+        List<DomCheckResult> failures = new ArrayList<>();
+        for (DomCheckResult result : results) {
+            if (!result.isPassed()) {
+                failures.add(result);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Prints one line per field
+     * @param title heading printed before the results
+     */
+    public void print(String title) {
+        System.out.println(title + ":");
+        for (DomCheckResult result : results) {
+            System.out.println("  " + result.describe());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return results.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package com.btcbit.test.support;
+
+/**
+ * Outcome of a single {@link DomCheck}
+ */
+public class DomCheckResult {
+    private final DomCheck check;
+    private final boolean found;
+    private final boolean displayed;
+    private final String actualText;
+
+    public DomCheckResult(DomCheck check, boolean found, boolean displayed, String actualText) {
+        this.check = check;
+        this.found = found;
+        this.displayed = displayed;
+        this.actualText = actualText;
+    }
+
+    public DomCheck getCheck() {
+        return check;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public boolean isDisplayed() {
+        return displayed;
+    }
+
+    /**
+     * @return trimmed element text, or null if the element was not found
+     */
+    public String getActualText() {
+        return actualText;
+    }
+
+    public boolean isTextMatching() {
+        return check.getExpectedText() == null
+                || (actualText != null && actualText.contains(check.getExpectedText()));
+    }
+
+    public boolean isPassed() {
+        return found && displayed && isTextMatching();
+    }
+
+    /**
+     * @return one line description of the outcome, naming the locator and expected value on failure
+     */
+    public String describe() {
+        if (isPassed()) {
+            return "OK   " + check.getName() + (actualText == null || actualText.isEmpty() ? "" : ": " + actualText);
+        }
+        String reason;
+        if (!found) {
+            reason = "not found";
+        } else if (!displayed) {
+            reason = "not displayed";
+        } else {
+            reason = "expected text containing '" + check.getExpectedText() + "' but was '" + actualText + "'";
+        }
+        return "FAIL " + check.getName() + " [" + check.getLocator() + "]: " + reason;
+    }
+
+    @Override
+    public String toString() {
+        return describe();
+    }
+}
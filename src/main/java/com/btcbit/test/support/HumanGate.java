@@ -0,0 +1,237 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parks flows that need a human, e.g. to solve a CAPTCHA, until someone marks them solved.
+ * One console reader and one HTTP listener on localhost serve every gate of the JVM, so a
+ * waiting flow holds no thread of its own and nothing is left behind when a gate times out;
+ * parallel sessions keep running meanwhile.
+ *
+ * <p>Console: Enter resolves the oldest open gate, {@code <id>} resolves that gate and
+ * {@code fail <id>} rejects it. HTTP: {@code GET /gates} lists open gates,
+ * {@code POST /gates/<id>/solved} and {@code POST /gates/<id>/failed} resolve one.
+ */
+public class HumanGate {
+    private static volatile HumanGate instance;
+
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, Gate> open = new ConcurrentSkipListMap<>();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private HumanGate() throws IOException {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "human-gate-http");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), TestConfig.humanGatePort()), 0);
+        server.setExecutor(executor);
+        server.createContext("/gates", this::handle);
+        // The dispatcher thread inherits daemon status from the thread that starts the server,
+        // so start it from the daemon executor or it would keep the JVM alive after the tests
+        try {
+            executor.submit(server::start).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException("Failed to start the human gate listener", e);
+        }
+
+        if (TestConfig.humanGateConsoleEnabled()) {
+            Thread console = new Thread(this::readConsole, "human-gate-console");
+            console.setDaemon(true);
+            console.start();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "human-gate-stop"));
+    }
+
+    public static HumanGate getInstance() {
+        if (instance == null) {
+            synchronized (HumanGate.class) {
+                if (instance == null) {
+                    try {
+                        instance = new HumanGate();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed to start the human gate listener", e);
+                    }
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Opens a gate and returns at once
+     * @param description what the human has to do
+     * @param timeout time after which the gate completes with false
+     * @return future that completes with true when solved, false when failed or timed out
+     */
+    public CompletableFuture<Boolean> request(String description, Duration timeout) {
+        Gate gate = new Gate(ids.incrementAndGet(), description);
+        open.put(gate.id, gate);
+        gate.result.completeOnTimeout(false, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((solved, error) -> {
+                    open.remove(gate.id);
+                    if (!Boolean.TRUE.equals(solved)) {
+                        System.out.println("Human gate " + gate.id + " closed without a solution: " + description);
+                    }
+                });
+
+        System.out.println("=================================================================");
+        System.out.println("Human gate " + gate.id + ": " + description);
+        System.out.println("You have " + timeout.getSeconds() + " seconds.");
+        if (TestConfig.humanGateConsoleEnabled()) {
+            System.out.println("When done, press Enter (or type " + gate.id + ") in the console,");
+            System.out.println("or type 'fail " + gate.id + "' to give up.");
+        }
+        System.out.println("Or: curl -X POST " + getBaseUrl() + "/gates/" + gate.id + "/solved");
+        System.out.println("=================================================================");
+        return gate.result;
+    }
+
+    /**
+     * Opens a gate and parks the calling flow until it is resolved or times out
+     * @param description what the human has to do
+     * @param timeout maximum wait
+     * @return true if a human marked the gate solved
+     */
+    public boolean await(String description, Duration timeout) {
+        CompletableFuture<Boolean> result = request(description, timeout);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.complete(false);
+            return false;
+        } catch (ExecutionException e) {
+            System.out.println("Human gate failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return address of the HTTP listener
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return number of gates waiting for a human
+     */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    private boolean resolve(Integer id, boolean solved) {
+        Gate gate = id == null ? oldest() : open.get(id);
+        if (gate == null) {
+            return false;
+        }
+        System.out.println("Human gate " + gate.id + (solved ? " solved" : " failed") + ": " + gate.description);
+        return gate.result.complete(solved);
+    }
+
+    private Gate oldest() {
+        for (Gate gate : open.values()) {
+            return gate;
+        }
+        return null;
+    }
+
+    private void readConsole() {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String command = line.trim();
+                boolean fail = command.startsWith("fail");
+                String id = fail ? command.substring(4).trim() : command;
+                try {
+                    if (!resolve(id.isEmpty() ? null : Integer.valueOf(id), !fail)) {
+                        System.out.println("No open human gate " + (id.isEmpty() ? "" : id));
+                    }
+                } catch (NumberFormatException e) {
+                    System.out.println("Unknown human gate command: " + command);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Human gate console closed: " + e.getMessage());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            if ("GET".equals(exchange.getRequestMethod()) && path.length == 2) {
+                StringBuilder body = new StringBuilder();
+                for (Gate gate : open.values()) {
+                    body.append(gate.id).append('\t').append(gate.description).append('\n');
+                }
+                send(exchange, 200, body.toString());
+            } else if ("POST".equals(exchange.getRequestMethod()) && path.length == 4
+                    && ("solved".equals(path[3]) || "failed".equals(path[3]))) {
+                boolean resolved;
+                try {
+                    resolved = resolve(Integer.valueOf(path[2]), "solved".equals(path[3]));
+                } catch (NumberFormatException e) {
+                    resolved = false;
+                }
+                send(exchange, resolved ? 200 : 404, resolved ? "OK\n" : "No open gate " + path[2] + "\n");
+            } else {
+                send(exchange, 404, "Not found\n");
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private void close() {
+        for (Gate gate : open.values()) {
+            gate.result.complete(false);
+        }
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private static class Gate {
+        private final int id;
+        private final String description;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Gate(int id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+}
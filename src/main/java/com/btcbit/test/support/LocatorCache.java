@@ -0,0 +1,144 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Remembers which strategy of a {@link LocatorChain} found the element last time
+ * and tries that strategy first on the next lookup.
+ * Winners and win counts are kept in a properties file between runs.
+ */
+public class LocatorCache extends PersistedStats {
+    private static final String WINNER_SUFFIX = ".winner";
+    private static final String WINS_INFIX = ".wins.";
+    private static final Shared<LocatorCache> SHARED =
+            new Shared<>(() -> new LocatorCache(Paths.get(TestConfig.locatorCacheFile())));
+
+    private final Map<String, String> winners = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, AtomicInteger>> wins = new ConcurrentHashMap<>();
+
+    /**
+     * @param file properties file the cache is loaded from and saved to
+     */
+    public LocatorCache(Path file) {
+        super(file, "locator cache");
+        load();
+    }
+
+    /**
+     * Returns the shared cache backed by {@link TestConfig#locatorCacheFile()}.
+     * The cache is saved automatically when the JVM exits.
+     * @return shared cache
+     */
+    public static LocatorCache getInstance() {
+        return SHARED.get();
+    }
+
+    /**
+     * Orders the strategies of a chain with the last winner first
+     * @param chain locator chain
+     * @return strategies to try, in order
+     */
+    public List<LocatorChain.Strategy> order(LocatorChain chain) {
+        List<LocatorChain.Strategy> ordered = new ArrayList<>(chain.getStrategies());
+        String winner = winners.get(chain.getName());
+        if (winner != null) {
+            for (int i = 0; i < ordered.size(); i++) {
+                if (ordered.get(i).getName().equals(winner)) {
+                    ordered.add(0, ordered.remove(i));
+                    break;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Records that a strategy found the element
+     * @param chain locator chain
+     * @param strategy strategy that succeeded
+     */
+    public void recordWin(LocatorChain chain, LocatorChain.Strategy strategy) {
+        String previous = winners.put(chain.getName(), strategy.getName());
+        if (previous != null && !previous.equals(strategy.getName())) {
+            System.out.println("Locator winner for " + chain.getName() + " changed from "
+                    + previous + " to " + strategy.getName());
+        }
+        wins.computeIfAbsent(chain.getName(), key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(strategy.getName(), key -> new AtomicInteger())
+                .incrementAndGet();
+    }
+
+    /**
+     * @param chainName logical element name
+     * @return name of the strategy that won last, or null if unknown
+     */
+    public String getWinner(String chainName) {
+        return winners.get(chainName);
+    }
+
+    /**
+     * @return win counts per logical element and strategy, including previous runs
+     */
+    public Map<String, Map<String, Integer>> getStatistics() {
+        Map<String, Map<String, Integer>> statistics = new TreeMap<>();
+        for (Map.Entry<String, Map<String, AtomicInteger>> chain : wins.entrySet()) {
+            Map<String, Integer> counts = new TreeMap<>();
+            for (Map.Entry<String, AtomicInteger> strategy : chain.getValue().entrySet()) {
+                counts.put(strategy.getKey(), strategy.getValue().get());
+            }
+            statistics.put(chain.getKey(), counts);
+        }
+        return statistics;
+    }
+
+    public void printStatistics() {
+        System.out.println("Locator strategy wins:");
+        for (Map.Entry<String, Map<String, Integer>> chain : getStatistics().entrySet()) {
+            System.out.println("  " + chain.getKey() + " (last winner: " + winners.get(chain.getKey()) + "): "
+                    + chain.getValue());
+        }
+    }
+
+    @Override
+    protected Properties write() {
+        Properties properties = new Properties();
+        for (Map.Entry<String, String> winner : winners.entrySet()) {
+            properties.setProperty(winner.getKey() + WINNER_SUFFIX, winner.getValue());
+        }
+        for (Map.Entry<String, Map<String, Integer>> chain : getStatistics().entrySet()) {
+            for (Map.Entry<String, Integer> strategy : chain.getValue().entrySet()) {
+                properties.setProperty(chain.getKey() + WINS_INFIX + strategy.getKey(),
+                        String.valueOf(strategy.getValue()));
+            }
+        }
+        return properties;
+    }
+
+    @Override
+    protected void read(Properties properties) {
+        for (String key : properties.stringPropertyNames()) {
+            String value = properties.getProperty(key);
+            if (key.endsWith(WINNER_SUFFIX)) {
+                winners.put(key.substring(0, key.length() - WINNER_SUFFIX.length()), value);
+            } else if (key.contains(WINS_INFIX)) {
+                int split = key.lastIndexOf(WINS_INFIX);
+                try {
+                    wins.computeIfAbsent(key.substring(0, split), k -> new ConcurrentHashMap<>())
+                            .put(key.substring(split + WINS_INFIX.length()), new AtomicInteger(Integer.parseInt(value)));
+                } catch (NumberFormatException e) {
+                    System.out.println("Ignoring invalid locator cache entry " + key + "=" + value);
+                }
+            }
+        }
+    }
+}
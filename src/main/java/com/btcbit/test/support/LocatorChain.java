@@ -0,0 +1,76 @@
+package com.btcbit.test.support;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Ordered set of alternative locators for one logical element,
+ * e.g. a hashed CSS class, the link text and an XPath for the same link.
+ */
+public class LocatorChain {
+    private final String name;
+    private final List<Strategy> strategies = new ArrayList<>();
+
+    /**
+     * @param name logical element name, used as the key in the {@link LocatorCache}
+     */
+    public LocatorChain(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Appends a fallback strategy
+     * @param strategyName short name of the strategy, e.g. "css" or "linkText"
+     * @param locator locator used by the strategy
+     * @return this chain
+     */
+    public LocatorChain add(String strategyName, By locator) {
+        strategies.add(new Strategy(strategyName, locator));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return strategies in declaration order
+     */
+    public List<Strategy> getStrategies() {
+        return Collections.unmodifiableList(strategies);
+    }
+
+    @Override
+    public String toString() {
+        return name + strategies;
+    }
+
+    /**
+     * One named way of locating the element
+     */
+    public static class Strategy {
+        private final String name;
+        private final By locator;
+
+        Strategy(String name, By locator) {
+            this.name = name;
+            this.locator = locator;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        @Override
+        public String toString() {
+            return name + "=" + locator;
+        }
+    }
+}
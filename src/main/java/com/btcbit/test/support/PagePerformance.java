@@ -0,0 +1,141 @@
+package com.btcbit.test.support;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Front-end metrics of one document load, read from the browser's Performance APIs:
+ * Navigation Timing, paint timings, Largest Contentful Paint, Cumulative Layout Shift and
+ * transferred bytes. Times are milliseconds since navigation start; a metric the browser
+ * did not report is -1.
+ */
+public class PagePerformance {
+    public static final List<String> METRICS = Collections.unmodifiableList(Arrays.asList(
+            "ttfbMs", "domContentLoadedMs", "loadMs", "firstPaintMs", "fcpMs", "lcpMs", "cls",
+            "transferKb", "requests"));
+
+    // LCP and layout shifts are only exposed to PerformanceObservers; buffered observers replay
+    // the entries recorded so far in a task of their own, hence the short delay before returning.
+    // Cross-origin resources report a size of 0 unless the server sends Timing-Allow-Origin.
+    private static final String CAPTURE_SCRIPT =
+            "var done = arguments[arguments.length - 1];"
+            + "var nav = performance.getEntriesByType('navigation')[0];"
+            + "if (!nav || !nav.loadEventEnd || nav.name.split('#')[0] !== location.href.split('#')[0]) {"
+            + "  done(null); return;"
+            + "}"
+            + "var result = {"
+            + "  url: location.href,"
+            + "  ttfbMs: nav.responseStart, domContentLoadedMs: nav.domContentLoadedEventEnd,"
+            + "  loadMs: nav.loadEventEnd, firstPaintMs: -1, fcpMs: -1, lcpMs: -1, cls: -1,"
+            + "  transferBytes: nav.transferSize || 0, requests: 1"
+            + "};"
+            + "performance.getEntriesByType('resource').forEach(function (r) {"
+            + "  result.transferBytes += r.transferSize || 0; result.requests++;"
+            + "});"
+            + "performance.getEntriesByType('paint').forEach(function (p) {"
+            + "  if (p.name === 'first-paint') { result.firstPaintMs = p.startTime; }"
+            + "  if (p.name === 'first-contentful-paint') { result.fcpMs = p.startTime; }"
+            + "});"
+            + "function observe(type, callback) {"
+            + "  try {"
+            + "    new PerformanceObserver(function (list) { list.getEntries().forEach(callback); })"
+            + "      .observe({type: type, buffered: true});"
+            + "    return true;"
+            + "  } catch (e) { return false; }"
+            + "}"
+            + "observe('largest-contentful-paint', function (e) {"
+            + "  result.lcpMs = Math.max(result.lcpMs, e.renderTime || e.loadTime || e.startTime);"
+            + "});"
+            + "if (observe('layout-shift', function (e) { if (!e.hadRecentInput) { result.cls += e.value; } })) {"
+            + "  result.cls = 0;"
+            + "}"
+            + "setTimeout(function () { done(result); }, 50);";
+
+    private final String page;
+    private final String url;
+    private final Map<String, Double> metrics;
+
+    PagePerformance(String page, String url, Map<String, Double> metrics) {
+        this.page = page;
+        this.url = url;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Reads the metrics of the current document
+     * @param driver browser session
+     * @param page page object name the load is attributed to
+     * @return metrics, or null if the load event has not fired or the page was reached by a
+     *         client-side route change rather than a document load
+     */
+    @SuppressWarnings("unchecked")
+    public static PagePerformance capture(WebDriver driver, String page) {
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(CAPTURE_SCRIPT);
+        if (!(result instanceof Map)) {
+            return null;
+        }
+        Map<String, Object> raw = (Map<String, Object>) result;
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            if ("transferKb".equals(metric)) {
+                metrics.put(metric, toDouble(raw.get("transferBytes")) / 1024.0);
+            } else {
+                metrics.put(metric, toDouble(raw.get(metric)));
+            }
+        }
+        return new PagePerformance(page, String.valueOf(raw.get("url")), metrics);
+    }
+
+    public String getPage() {
+        return page;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @param metric one of {@link #METRICS}
+     * @return value, or -1 if not reported
+     */
+    public double get(String metric) {
+        Double value = metrics.get(metric);
+        return value == null ? -1 : value;
+    }
+
+    public long getTransferBytes() {
+        return Math.round(get("transferKb") * 1024);
+    }
+
+    public long getLoadMs() {
+        return Math.round(get("loadMs"));
+    }
+
+    public int getRequests() {
+        return (int) get("requests");
+    }
+
+    /**
+     * @return metrics in {@link #METRICS} order
+     */
+    public Map<String, Double> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: ttfb=%.0fms fcp=%.0fms lcp=%.0fms cls=%.3f load=%.0fms %.0fKB/%d requests",
+                page, get("ttfbMs"), get("fcpMs"), get("lcpMs"), get("cls"), get("loadMs"),
+                get("transferKb"), getRequests());
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+}
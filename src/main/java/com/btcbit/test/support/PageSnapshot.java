@@ -0,0 +1,144 @@
+package com.btcbit.test.support;
+
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parsed copy of a rendered page.
+ * {@link DomCheck}s are evaluated in-process with jsoup, so the browser is free again as soon
+ * as the page source has been captured. A check takes microseconds, so they run one after
+ * another; a snapshot is not meant to be shared between threads.
+ * Visibility is approximated from the markup: an element counts as displayed unless it or an
+ * ancestor is hidden by the hidden attribute or an inline display/visibility style.
+ */
+public class PageSnapshot {
+    private final String url;
+    private final Document document;
+    // XPath needs a W3C copy of the DOM; it is converted on the first XPath check and reused
+    private W3CDom w3cDom;
+    private org.w3c.dom.Node w3cContext;
+
+    private PageSnapshot(String url, Document document) {
+        this.url = url;
+        this.document = document;
+    }
+
+    /**
+     * Captures the current DOM of the browser in one round trip
+     * @param driver driver showing the page
+     * @return snapshot of the rendered page
+     */
+    public static PageSnapshot capture(WebDriver driver) {
+        String url = driver.getCurrentUrl();
+        return parse(driver.getPageSource(), url);
+    }
+
+    /**
+     * Parses HTML into a snapshot
+     * @param html page markup
+     * @param url address the markup was loaded from, used to resolve relative links
+     * @return snapshot of the page
+     */
+    public static PageSnapshot parse(String html, String url) {
+        return new PageSnapshot(url, Jsoup.parse(html, url));
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Evaluates all checks against the snapshot
+     * @param checks checks to evaluate
+     * @return per-field results, in the order of the checks
+     */
+    public DomCheckReport verify(List<DomCheck> checks) {
+        List<DomCheckResult> results = new ArrayList<>();
+        for (DomCheck check : checks) {
+            results.add(verify(check));
+        }
+        return new DomCheckReport(results);
+    }
+
+    /**
+     * Evaluates one check against the snapshot
+     * @param check check to evaluate
+     * @return result of the check
+     */
+    public DomCheckResult verify(DomCheck check) {
+        Element element;
+        try {
+            element = find(check.getUsing(), check.getValue());
+        } catch (RuntimeException e) {
+            System.out.println("Failed to evaluate " + check + " on snapshot of " + url + ": " + e.getMessage());
+            element = null;
+        }
+        if (element == null) {
+            return new DomCheckResult(check, false, false, null);
+        }
+        return new DomCheckResult(check, true, isDisplayed(element), element.text().trim());
+    }
+
+    /**
+     * Finds the first element matching a W3C locator
+     * @param using locator strategy, e.g. "css selector" or "xpath"
+     * @param value selector or expression
+     * @return first match, or null
+     */
+    public Element find(String using, String value) {
+        switch (using) {
+            case "css selector":
+                return document.selectFirst(value);
+            case "xpath":
+                List<Element> matches = selectXpath(value);
+                return matches.isEmpty() ? null : matches.get(0);
+            case "link text":
+            case "partial link text":
+                for (Element link : document.getElementsByTag("a")) {
+                    String text = link.text().trim();
+                    if ("link text".equals(using) ? text.equals(value) : text.contains(value)) {
+                        return link;
+                    }
+                }
+                return null;
+            case "tag name":
+                Elements elements = document.getElementsByTag(value);
+                return elements.isEmpty() ? null : elements.first();
+            default:
+                throw new IllegalArgumentException("Unsupported locator strategy: " + using);
+        }
+    }
+
+    private List<Element> selectXpath(String xpath) {
+        if (w3cDom == null) {
+            w3cDom = new W3CDom().namespaceAware(false);
+            w3cContext = w3cDom.contextNode(w3cDom.fromJsoup(document));
+        }
+        return w3cDom.sourceNodes(w3cDom.selectXpath(xpath, w3cContext), Element.class);
+    }
+
+    private boolean isDisplayed(Element element) {
+        for (Element current = element; current != null; current = current.parent()) {
+            if (current.hasAttr("hidden")) {
+                return false;
+            }
+            String style = current.attr("style").replace(" ", "").toLowerCase(Locale.ROOT);
+            if (style.contains("display:none") || style.contains("visibility:hidden")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,72 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Upper limits for {@link PagePerformance} metrics per page object.
+ * Limits come from the classpath resource {@link TestConfig#perfBudgetsResource()} with keys
+ * {@code <Page>.<metric>} and {@code default.<metric>}; -Dbtcbit.budget.<Page>.<metric> overrides both.
+ */
+public class PerformanceBudgets {
+    private static final String OVERRIDE_PREFIX = "btcbit.budget.";
+
+    private final Properties budgets = new Properties();
+
+    /**
+     * @param resource classpath resource with the budgets; a missing resource means no budgets
+     */
+    public PerformanceBudgets(String resource) {
+        try (InputStream in = PerformanceBudgets.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                budgets.load(in);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to load performance budgets " + resource + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @param page page object name
+     * @param metric metric name, one of {@link PagePerformance#METRICS}
+     * @return limit, or -1 if the metric has no budget for the page
+     */
+    public double limitOf(String page, String metric) {
+        String value = TestConfig.getString(OVERRIDE_PREFIX + page + "." + metric, null);
+        if (value == null) {
+            value = budgets.getProperty(page + "." + metric, budgets.getProperty("default." + metric));
+        }
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring invalid budget " + page + "." + metric + "=" + value);
+            return -1;
+        }
+    }
+
+    /**
+     * Compares a page load with its budgets; metrics the browser did not report are skipped
+     * @param performance measured page load
+     * @return one message per exceeded budget
+     */
+    public List<String> check(PagePerformance performance) {
+        List<String> violations = new ArrayList<>();
+        for (String metric : PagePerformance.METRICS) {
+            double limit = limitOf(performance.getPage(), metric);
+            double value = performance.get(metric);
+            if (limit >= 0 && value >= 0 && value > limit) {
+                violations.add(String.format("%s %s %.3f exceeds budget %.3f (%s)",
+                        performance.getPage(), metric, value, limit, performance.getUrl()));
+            }
+        }
+        return violations;
+    }
+}
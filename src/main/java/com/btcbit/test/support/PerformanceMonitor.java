@@ -0,0 +1,91 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.network.ResourceProfile;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the {@link PagePerformance} of every page-object navigation, checks it against
+ * {@link PerformanceBudgets} and keeps budget violations per test thread until the test
+ * collects them with {@link #drainViolations()}.
+ * Budgets describe the page a user gets, so only loads without blocked resources are checked;
+ * loads under another {@link ResourceProfile} are reported with their profile but not budgeted.
+ */
+public class PerformanceMonitor {
+    private static final PerformanceMonitor INSTANCE = new PerformanceMonitor();
+
+    private final PerformanceBudgets budgets = new PerformanceBudgets(TestConfig.perfBudgetsResource());
+    private final List<Map<String, Object>> captures = new ArrayList<>();
+    private final ThreadLocal<List<String>> violations = ThreadLocal.withInitial(ArrayList::new);
+
+    public static PerformanceMonitor getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Adds a page load and checks its budgets if nothing was blocked
+     * @param performance measured page load
+     * @param profile resource profile the page was loaded with
+     * @return exceeded budgets of this load, empty for a load with blocked resources
+     */
+    public List<String> record(PagePerformance performance, ResourceProfile profile) {
+        System.out.println("Page performance " + performance + " (" + profile + ")");
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("page", performance.getPage());
+        row.put("url", performance.getUrl());
+        row.put("profile", profile.name());
+        row.put("budgeted", profile == ResourceProfile.FULL);
+        row.putAll(performance.getMetrics());
+        synchronized (captures) {
+            captures.add(row);
+        }
+        if (profile != ResourceProfile.FULL) {
+            return new ArrayList<>();
+        }
+        List<String> exceeded = budgets.check(performance);
+        for (String violation : exceeded) {
+            System.out.println("Performance budget exceeded: " + violation);
+        }
+        violations.get().addAll(exceeded);
+        return exceeded;
+    }
+
+    /**
+     * Returns and clears the budget violations recorded on the current thread
+     * @return violations since the last call
+     */
+    public List<String> drainViolations() {
+        List<String> drained = new ArrayList<>(violations.get());
+        violations.remove();
+        return drained;
+    }
+
+    /**
+     * Writes navigations.json with the metrics of every recorded page load
+     * @param directory report directory, created if missing
+     */
+    public void writeReport(Path directory) {
+        List<Map<String, Object>> rows;
+        synchronized (captures) {
+            rows = new ArrayList<>(captures);
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("navigations.json"), new Json().toJson(rows).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Failed to write navigation performance report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.btcbit.test.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+/**
+ * Base of statistics kept in a properties file between runs: read when created, written
+ * atomically by {@link #save()}. The JVM-wide instance is held by a {@link Shared}, which
+ * creates it on first use and saves it when the JVM exits.
+ */
+public abstract class PersistedStats {
+    private final Path file;
+    private final String description;
+
+    /**
+     * @param file properties file the statistics are loaded from and saved to
+     * @param description what is stored, used in messages and as the file comment
+     */
+    protected PersistedStats(Path file, String description) {
+        this.file = file;
+        this.description = description;
+    }
+
+    /**
+     * Reads the file if it exists; subclasses call it at the end of their constructor,
+     * once their own fields are set
+     */
+    protected final void load() {
+        Properties properties = loadProperties(file, description);
+        if (properties != null) {
+            read(properties);
+        }
+    }
+
+    /**
+     * @param properties stored statistics
+     */
+    protected abstract void read(Properties properties);
+
+    /**
+     * @return statistics to store, or null if there is nothing to save
+     */
+    protected abstract Properties write();
+
+    /**
+     * Writes the statistics to their file, replacing the previous version atomically
+     */
+    public synchronized void save() {
+        Properties properties = write();
+        if (properties != null) {
+            saveProperties(file, properties, description);
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @param file properties file
+     * @param description what is stored, used in messages
+     * @return stored properties, or null if the file is missing or unreadable
+     */
+    public static Properties loadProperties(Path file, String description) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            return properties;
+        } catch (IOException e) {
+            System.out.println("Failed to load " + description + " " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes properties through a temporary file and an atomic move, so readers never see half a file
+     * @param file properties file
+     * @param properties properties to store
+     * @param description what is stored, used in messages and as the file comment
+     */
+    public static void saveProperties(Path file, Properties properties, String description) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, description);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Failed to save " + description + " " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds what one run changed to merged statistics. Numeric values, the counters and totals,
+     * gain the run's increase over the start; other values, such as locator winners, are taken
+     * from the run when it changed them.
+     * @param merged statistics to add to
+     * @param start statistics the run started from
+     * @param run statistics the run saved
+     */
+    public static void addRun(Properties merged, Properties start, Properties run) {
+        for (String key : run.stringPropertyNames()) {
+            String value = run.getProperty(key);
+            String initial = start.getProperty(key);
+            if (value.equals(initial)) {
+                continue;
+            }
+            try {
+                long increase = Long.parseLong(value) - (initial == null ? 0 : Long.parseLong(initial));
+                merged.setProperty(key, String.valueOf(Long.parseLong(merged.getProperty(key, "0")) + increase));
+            } catch (NumberFormatException e) {
+                merged.setProperty(key, value);
+            }
+        }
+    }
+
+    /**
+     * JVM-wide instance, created on first use and saved when the JVM exits
+     * @param <T> statistics type
+     */
+    public static final class Shared<T extends PersistedStats> {
+        private final Supplier<T> factory;
+        private volatile T instance;
+
+        /**
+         * @param factory creates the instance, e.g. from the file configured in TestConfig
+         */
+        public Shared(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public T get() {
+            if (instance == null) {
+                synchronized (this) {
+                    if (instance == null) {
+                        T created = factory.get();
+                        Runtime.getRuntime().addShutdownHook(new Thread(created::save, created.getDescription() + " save"));
+                        instance = created;
+                    }
+                }
+            }
+            return instance;
+        }
+    }
+}
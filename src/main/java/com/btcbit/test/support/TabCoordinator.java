@@ -0,0 +1,144 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.driver.CommandTracer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs independent page-object tasks side by side in tabs of one browser session.
+ * Every task claims its own tab and starts its work there; the coordinator then visits the
+ * tabs in turn and polls each one once per round, so the browser loads and renders all pages
+ * at the same time while WebDriver only issues the short probes one after another.
+ * Needs no extra browser process: one session per worker still serves all tabs.
+ * The polling rounds are a wait: the first round and the poll that finishes a task count
+ * against the test's command budget, the other rounds are traced as wait polls.
+ */
+public class TabCoordinator {
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final WebDriver driver;
+
+    /**
+     * @param driver shared session the tabs are opened in
+     */
+    public TabCoordinator(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Opens a tab per task, starts all of them and polls them until every task has a result
+     * or the budget runs out. Every tab then runs its task's finish step and is closed; the
+     * original window is current again afterwards.
+     * @param tasks independent tasks
+     * @param budget shared deadline of all tasks
+     * @return result per task name, in task order; null for tasks that failed or did not finish in time
+     */
+    public <T> Map<String, T> run(List<TabTask<T>> tasks, WaitBudget budget) {
+        String original = driver.getWindowHandle();
+        Map<String, T> results = new LinkedHashMap<>();
+        List<String> handles = new ArrayList<>();
+        List<TabTask<T>> pending = new ArrayList<>();
+        try {
+            for (TabTask<T> task : tasks) {
+                results.put(task.getName(), null);
+                driver.switchTo().newWindow(WindowType.TAB);
+                handles.add(driver.getWindowHandle());
+                try {
+                    task.start();
+                    pending.add(task);
+                } catch (Exception e) {
+                    System.out.println("Failed to start " + task.getName() + " in its tab: " + e.getMessage());
+                    pending.add(null);
+                }
+            }
+
+            pollUntilDone(pending, handles, results, budget);
+
+            for (TabTask<T> task : pending) {
+                if (task != null) {
+                    System.out.println(task.getName() + " did not finish within " + budget.getTotal().toMillis() + " ms");
+                }
+            }
+            System.out.println("Ran " + tasks.size() + " tabs side by side in " + budget.elapsed().toMillis() + " ms");
+            return results;
+        } finally {
+            closeTabs(tasks, handles, original);
+        }
+    }
+
+    private <T> void pollUntilDone(List<TabTask<T>> pending, List<String> handles, Map<String, T> results,
+                                   WaitBudget budget) {
+        int unfinished = countUnfinished(pending);
+        boolean firstRound = true;
+        while (unfinished > 0 && !budget.isExhausted()) {
+            for (int i = 0; i < pending.size(); i++) {
+                TabTask<T> task = pending.get(i);
+                if (task == null) {
+                    continue;
+                }
+                String handle = handles.get(i);
+                try {
+                    T result = firstRound ? pollIn(handle, task) : CommandTracer.repoll(() -> pollIn(handle, task));
+                    if (result != null) {
+                        results.put(task.getName(), result);
+                        pending.set(i, null);
+                    }
+                } catch (Exception e) {
+                    System.out.println("Failed to check " + task.getName() + " in its tab: " + e.getMessage());
+                    pending.set(i, null);
+                }
+            }
+            firstRound = false;
+            unfinished = countUnfinished(pending);
+            if (unfinished > 0) {
+                sleep(budget.remainingUpTo(POLL_INTERVAL));
+            }
+        }
+    }
+
+    private <T> T pollIn(String handle, TabTask<T> task) {
+        driver.switchTo().window(handle);
+        return task.poll();
+    }
+
+    private <T> void closeTabs(List<TabTask<T>> tasks, List<String> handles, String original) {
+        for (int i = 0; i < handles.size(); i++) {
+            try {
+                driver.switchTo().window(handles.get(i));
+                tasks.get(i).finish();
+            } catch (Exception e) {
+                System.out.println("Failed to finish " + tasks.get(i).getName() + " in its tab: " + e.getMessage());
+            }
+            try {
+                driver.switchTo().window(handles.get(i)).close();
+            } catch (Exception e) {
+                System.out.println("Failed to close tab: " + e.getMessage());
+            }
+        }
+        driver.switchTo().window(original);
+    }
+
+    private static int countUnfinished(List<?> pending) {
+        int count = 0;
+        for (Object task : pending) {
+            if (task != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
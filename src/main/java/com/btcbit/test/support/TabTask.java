@@ -0,0 +1,62 @@
+package com.btcbit.test.support;
+
+import java.util.function.Supplier;
+
+/**
+ * Work a page object does in its own browser tab under a {@link TabCoordinator}.
+ * {@link #start()} kicks the work off without waiting for it, e.g. by starting a navigation;
+ * {@link #poll()} checks once, without blocking, whether the result is there;
+ * {@link #finish()} runs just before the tab is closed.
+ * All are only called while the task's tab is the current window.
+ * @param <T> result type
+ */
+public final class TabTask<T> {
+    private final String name;
+    private final Runnable start;
+    private final Supplier<T> poll;
+    private final Runnable finish;
+
+    private TabTask(String name, Runnable start, Supplier<T> poll, Runnable finish) {
+        this.name = name;
+        this.start = start;
+        this.poll = poll;
+        this.finish = finish;
+    }
+
+    /**
+     * @param name name used in the log and as the key of the result
+     * @param start starts the work without waiting
+     * @param poll returns the result, or null while it is not ready
+     * @return new task
+     */
+    public static <T> TabTask<T> of(String name, Runnable start, Supplier<T> poll) {
+        return new TabTask<>(name, start, poll, () -> { });
+    }
+
+    /**
+     * @param name name used in the log and as the key of the result
+     * @param start starts the work without waiting
+     * @param poll returns the result, or null while it is not ready
+     * @param finish last work in the tab, e.g. reading metrics, run whether or not the task finished
+     * @return new task
+     */
+    public static <T> TabTask<T> of(String name, Runnable start, Supplier<T> poll, Runnable finish) {
+        return new TabTask<>(name, start, poll, finish);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    void start() {
+        start.run();
+    }
+
+    T poll() {
+        return poll.get();
+    }
+
+    void finish() {
+        finish.run();
+    }
+}
@@ -0,0 +1,166 @@
+package com.btcbit.test.support;
+
+import com.btcbit.test.config.TestConfig;
+import com.github.javafaker.Faker;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe source of test identities. One Faker is created per JVM (parsing its locale
+ * files is the expensive part), and a daemon thread keeps a bounded buffer of identities
+ * filled ahead of the tests. When the buffer runs dry, the caller generates an identity inline.
+ *
+ * <p>Emails are unique across threads and runs: every address carries the run ID and the
+ * value of one shared counter, e.g. {@code johsmi.lq3x8k2f4t.17@test.com}.
+ */
+public class TestDataFactory {
+    private static final String EMAIL_DOMAIN = "@test.com";
+    private static volatile TestDataFactory instance;
+
+    private final Faker faker = new Faker(Locale.ENGLISH);
+    private final BlockingQueue<Identity> buffer;
+    private final String runId;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong generatingNanos = new AtomicLong();
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong inline = new AtomicLong();
+
+    private TestDataFactory() {
+        runId = TestConfig.testDataRunId();
+        buffer = new ArrayBlockingQueue<>(TestConfig.testDataBufferSize());
+        Thread producer = new Thread(this::fill, "test-data-producer");
+        producer.setDaemon(true);
+        producer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(producer::interrupt, "test-data-stop"));
+    }
+
+    public static TestDataFactory getInstance() {
+        if (instance == null) {
+            synchronized (TestDataFactory.class) {
+                if (instance == null) {
+                    instance = new TestDataFactory();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true once the factory has been created, i.e. some test asked for data
+     */
+    public static boolean isStarted() {
+        return instance != null;
+    }
+
+    /**
+     * Takes the next identity from the buffer, or generates one if the buffer is empty
+     * @return identity with a unique email
+     */
+    public Identity next() {
+        taken.incrementAndGet();
+        Identity identity = buffer.poll();
+        if (identity == null) {
+            inline.incrementAndGet();
+            identity = generate();
+        }
+        return identity;
+    }
+
+    /**
+     * Builds a unique email from the first three letters of the first and the last name
+     * @param firstName first name
+     * @param lastName last name
+     * @return email in the format first3last3.runId.sequence@test.com
+     */
+    public String emailFor(String firstName, String lastName) {
+        return prefix(firstName) + prefix(lastName) + "." + runId + "." + sequence.incrementAndGet() + EMAIL_DOMAIN;
+    }
+
+    /**
+     * @return ID that distinguishes this JVM's emails from those of every other run
+     */
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * Prints how many identities were generated, at what rate, and how often the buffer ran dry
+     */
+    public void printStatistics() {
+        long count = generated.get();
+        long nanos = generatingNanos.get();
+        System.out.println("Test data: " + count + " identities generated"
+                + (nanos > 0 ? String.format(" at %.0f/s", count * 1e9 / nanos) : "")
+                + ", " + taken.get() + " taken, " + inline.get() + " generated inline (buffer empty)"
+                + ", run ID " + runId);
+    }
+
+    private void fill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                buffer.put(generate());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Identity generate() {
+        String firstName;
+        String lastName;
+        String password;
+        // Faker keeps per-instance state, so the producer and inline callers take turns;
+        // only the time inside the lock counts, so the rate is that of the generator itself
+        synchronized (faker) {
+            long start = System.nanoTime();
+            firstName = faker.name().firstName();
+            lastName = faker.name().lastName();
+            password = faker.internet().password(10, 15, true, true, true) + "!1Aa";
+            generatingNanos.addAndGet(System.nanoTime() - start);
+        }
+        generated.incrementAndGet();
+        return new Identity(firstName, lastName, emailFor(firstName, lastName), password);
+    }
+
+    private static String prefix(String name) {
+        String letters = name.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT);
+        return letters.length() >= 3 ? letters.substring(0, 3) : letters;
+    }
+
+    /**
+     * Generated test user
+     */
+    public static class Identity {
+        private final String firstName;
+        private final String lastName;
+        private final String email;
+        private final String password;
+
+        Identity(String firstName, String lastName, String email, String password) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.email = email;
+            this.password = password;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.btcbit.test.support;
+
+import java.time.Duration;
+
+/**
+ * Deadline shared by every wait that belongs to one page action.
+ * Each wait only gets the time that is left, so a chain of fallbacks
+ * can never take longer than the budget it started with.
+ */
+public final class WaitBudget {
+    private final Duration total;
+    private final long startNanos;
+    private final long deadlineNanos;
+
+    private WaitBudget(Duration total) {
+        this.total = total;
+        this.startNanos = System.nanoTime();
+        this.deadlineNanos = startNanos + total.toNanos();
+    }
+
+    /**
+     * Starts a new budget
+     * @param total time available for the whole action
+     * @return running budget
+     */
+    public static WaitBudget of(Duration total) {
+        return new WaitBudget(total.isNegative() ? Duration.ZERO : total);
+    }
+
+    /**
+     * @return time left before the deadline, never negative
+     */
+    public Duration remaining() {
+        long left = deadlineNanos - System.nanoTime();
+        return left > 0 ? Duration.ofNanos(left) : Duration.ZERO;
+    }
+
+    /**
+     * Caps a wait to what is left of the budget
+     * @param limit preferred duration of the wait
+     * @return the smaller of the limit and the remaining time
+     */
+    public Duration remainingUpTo(Duration limit) {
+        Duration left = remaining();
+        return left.compareTo(limit) < 0 ? left : limit;
+    }
+
+    public boolean isExhausted() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    public Duration elapsed() {
+        return Duration.ofNanos(System.nanoTime() - startNanos);
+    }
+
+    public Duration getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitBudget{total=" + total.toMillis() + "ms, remaining=" + remaining().toMillis() + "ms}";
+    }
+}
@@ -0,0 +1,56 @@
+package com.btcbit.test;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.http.StaticPageClient;
+import com.btcbit.test.pages.ContactsPage;
+import com.btcbit.test.pages.HomePage;
+import com.btcbit.test.standin.StandInServer;
+import com.btcbit.test.support.DomCheck;
+import com.btcbit.test.support.DomCheckReport;
+import com.btcbit.test.support.PageSnapshot;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that only need server-rendered HTML. They run on the HTTP lane without a browser,
+ * using the same checks the page objects define. Run them alone with -Pstatic.
+ */
+@Tag("static")
+@Execution(ExecutionMode.CONCURRENT)
+public class BtcBitStaticTest {
+    private static StaticPageClient client;
+
+    @BeforeAll
+    public static void setupClass() {
+        StandInServer.startIfEnabled();
+        client = new StaticPageClient(TestConfig.baseUrl());
+    }
+
+    @Test
+    @DisplayName("BTCbit.net - Home Page Navigation Links (HTTP)")
+    public void testHomePageLinks() {
+        PageSnapshot home = client.fetch("/");
+        
+        DomCheckReport report = home.verify(HomePage.navigationLinkChecks());
+        report.print("Home page links");
+        
+        Assertions.assertTrue(report.isAllPassed(), "Home page links mismatch: " + report.getFailures());
+    }
+
+    @Test
+    @DisplayName("BTCbit.net - Contact Page Information (HTTP)")
+    public void testContactsPage() {
+        PageSnapshot contacts = client.fetch("/contacts/");
+        
+        List<DomCheck> checks = new ArrayList<>(ContactsPage.polandOfficeChecks());
+        checks.addAll(ContactsPage.estoniaOfficeChecks());
+        DomCheckReport report = contacts.verify(checks);
+        report.print("Contacts page office information");
+        
+        Assertions.assertTrue(report.isAllPassed(), "Office information mismatch: " + report.getFailures());
+    }
+}
@@ -1,69 +1,158 @@
 package com.btcbit.test;
 
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.driver.CommandTracer;
+import com.btcbit.test.driver.DriverBackend;
+import com.btcbit.test.driver.DriverFactory;
+import com.btcbit.test.driver.LaunchStats;
+import com.btcbit.test.driver.SessionRecycler;
+import com.btcbit.test.driver.WebDriverPool;
+import com.btcbit.test.junit.Backend;
+import com.btcbit.test.junit.CommandBudgetExtension;
+import com.btcbit.test.junit.DurationBaselineExtension;
+import com.btcbit.test.junit.MaxCommands;
+import com.btcbit.test.junit.PerformanceBudgetExtension;
+import com.btcbit.test.network.NetworkMode;
+import com.btcbit.test.network.RecordReplayInterceptor;
+import com.btcbit.test.network.ResourceLoadStats;
 import com.btcbit.test.pages.*;
-import com.github.javafaker.Faker;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.btcbit.test.standin.StandInServer;
+import com.btcbit.test.support.ActionMetrics;
+import com.btcbit.test.support.AuthSessionCache;
+import com.btcbit.test.support.LocatorCache;
+import com.btcbit.test.support.TabCoordinator;
+import com.btcbit.test.support.TestDataFactory;
+import com.btcbit.test.support.WaitBudget;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 
+import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.Locale;
+import java.util.Arrays;
+import java.util.Map;
 
+@ExtendWith({CommandBudgetExtension.class, DurationBaselineExtension.class, PerformanceBudgetExtension.class})
 public class BtcBitTest {
+    private static final String VALID_EMAIL = TestConfig.loginEmail();
+    private static final String VALID_PASSWORD = TestConfig.loginPassword();
+    
+    private static DriverFactory driverFactory;
+    private static WebDriverPool driverPool;
+    private static WebDriverPool htmlUnitPool;
+
+    private WebDriverPool pool;
     private WebDriver driver;
     private HomePage homePage;
     private SignupPage signupPage;
     private LoginPage loginPage;
     private ProfilePage profilePage;
     private ContactsPage contactsPage;
-    private Faker faker;
 
     @BeforeAll
     public static void setupClass() {
-        WebDriverManager.chromedriver().setup();
+        StandInServer.startIfEnabled();
+        // chromedriver is resolved and started with the first Chrome session, not before
+        driverFactory = new DriverFactory(TestConfig.launchProfile());
+        SessionRecycler recycler = TestConfig.sessionRecyclingEnabled()
+                ? new SessionRecycler(TestConfig.sessionMaxReuses())
+                : null;
+        // A session keeps its network interceptor while it is recycled; it is closed before the quit
+        driverPool = new WebDriverPool(BtcBitTest::createDriver, TestConfig.maxParallelSessions(), recycler,
+                RecordReplayInterceptor::detach);
+        // HtmlUnit sessions start in milliseconds, so they are not recycled
+        htmlUnitPool = new WebDriverPool(BtcBitTest::createHtmlUnitDriver, TestConfig.htmlUnitMaxSessions());
     }
 
-    @BeforeEach
-    public void setUp() {
-        ChromeOptions options = new ChromeOptions();
-        // Add options for headless mode if needed
-        // options.addArguments("--headless");
-        options.addArguments("--window-size=1920,1080");
-        options.addArguments("--start-maximized");
-        options.addArguments("--disable-notifications");
-        
-        driver = new ChromeDriver(options);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+    @AfterAll
+    public static void tearDownClass() {
+        if (driverPool != null) {
+            driverPool.close();
+        }
+        if (htmlUnitPool != null) {
+            htmlUnitPool.close();
+        }
+        if (driverFactory != null) {
+            driverFactory.close();
+        }
+        LaunchStats.getInstance().printStatistics();
+        LaunchStats.getInstance().save();
+        LocatorCache.getInstance().printStatistics();
+        LocatorCache.getInstance().save();
+        RecordReplayInterceptor.finish();
+        ResourceLoadStats.getInstance().printStatistics();
+        ResourceLoadStats.getInstance().save();
+        ActionMetrics.getInstance().writeReports(Paths.get(TestConfig.perfReportDir()));
+        if (TestDataFactory.isStarted()) {
+            TestDataFactory.getInstance().printStatistics();
+        }
+    }
+
+    private static WebDriver createDriver() {
+        // Only the session is new; chromedriver keeps running for the whole class.
+        // Chrome options come from the launch profile (-Dbtcbit.launch.profile=fast for headless)
+        // Every command of the test body is counted and checked against its @MaxCommands budget
+        WebDriver driver = CommandTracer.trace(driverFactory.create(DriverBackend.CHROME));
+        // Record or replay all traffic of this session when -Dbtcbit.network.mode is set;
+        // the pool detaches the interceptor when the session is quit
+        RecordReplayInterceptor.attachIfEnabled(driver);
+        // Page objects wait explicitly within a per-action budget, so "is it there?" probes
+        // must not block on an implicit wait
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
         driver.manage().window().maximize();
+        return driver;
+    }
+
+    private static WebDriver createHtmlUnitDriver() {
+        WebDriver driver = CommandTracer.trace(driverFactory.create(DriverBackend.HTMLUNIT));
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        return driver;
+    }
+
+    private static DriverBackend backendOf(TestInfo testInfo) {
+        DriverBackend backend = testInfo.getTestMethod()
+                .map(method -> method.getAnnotation(Backend.class))
+                .map(Backend::value)
+                .orElse(DriverBackend.CHROME);
+        // Recording and replaying traffic goes through DevTools, which only Chrome has
+        if (!TestConfig.htmlUnitEnabled() || TestConfig.networkMode() != NetworkMode.LIVE) {
+            return DriverBackend.CHROME;
+        }
+        return backend;
+    }
+
+    @BeforeEach
+    public void setUp(TestInfo testInfo) {
+        // Borrow a driver bound to this worker thread (a recycled session if one is idle),
+        // from Chrome unless the test is marked for the in-JVM backend
+        pool = backendOf(testInfo) == DriverBackend.HTMLUNIT ? htmlUnitPool : driverPool;
+        driver = pool.acquire();
         
-        // Initialize page objects
-        homePage = new HomePage(driver);
-        signupPage = new SignupPage(driver);
-        loginPage = new LoginPage(driver);
-        profilePage = new ProfilePage(driver);
-        contactsPage = new ContactsPage(driver);
-        
-        // Initialize Faker with English locale
-        faker = new Faker(Locale.ENGLISH);
+        // Initialize page objects; their methods are timed into ActionMetrics
+        homePage = TimedPages.create(HomePage.class, driver);
+        signupPage = TimedPages.create(SignupPage.class, driver);
+        loginPage = TimedPages.create(LoginPage.class, driver);
+        profilePage = TimedPages.create(ProfilePage.class, driver);
+        contactsPage = TimedPages.create(ContactsPage.class, driver);
     }
 
     @AfterEach
     public void tearDown() {
         if (driver != null) {
-            driver.quit();
+            pool.release();
         }
     }
 
     @Test
     @DisplayName("BTCbit.net - New User Registration Test")
+    @MaxCommands(300)
     public void testClientRegistration() {
-        // Generate realistic test data using Faker
-        String firstName = faker.name().firstName();
-        String lastName = faker.name().lastName();
-        String email = signupPage.generateEmail(firstName, lastName);
-        String password = faker.internet().password(10, 15, true, true, true) + "!1Aa";
+        // Take a pre-generated identity with an email unique to this run
+        TestDataFactory.Identity user = TestDataFactory.getInstance().next();
+        String firstName = user.getFirstName();
+        String lastName = user.getLastName();
+        String email = user.getEmail();
+        String password = user.getPassword();
         
         System.out.println("Test data for registration:");
         System.out.println("First name: " + firstName);
@@ -129,9 +218,10 @@ public class BtcBitTest {
 
     @Test
     @DisplayName("BTCbit.net - Failed Login with Invalid Credentials Test")
+    @MaxCommands(150)
     public void testFailedLogin() {
-        String email = "sharapov.k44@gmail.com";
-        String randomPassword = faker.internet().password(10, 15, true, true, true) + "!1Aa";
+        String email = VALID_EMAIL;
+        String randomPassword = TestDataFactory.getInstance().next().getPassword();
         
         System.out.println("Test data for failed login:");
         System.out.println("Email: " + email);
@@ -161,9 +251,10 @@ public class BtcBitTest {
 
     @Test
     @DisplayName("BTCbit.net - Successful Login with Valid Credentials Test")
+    @MaxCommands(200)
     public void testSuccessfulLogin() {
-        String email = "sharapov.k44@gmail.com";
-        String password = "7xREycej$7C@kJ";
+        String email = VALID_EMAIL;
+        String password = VALID_PASSWORD;
         
         System.out.println("Test data for successful login:");
         System.out.println("Email: " + email);
@@ -195,6 +286,9 @@ public class BtcBitTest {
         Assertions.assertTrue(profilePage.verifyProfileEmail(email), 
                 "Profile should display the correct email address");
         
+        // Keep the session so other tests can skip the UI login
+        AuthSessionCache.getInstance().store(email, driver);
+        
         System.out.println("=================================================================");
         System.out.println("Test PASSED: Login form is working correctly.");
         System.out.println("Login attempt succeeded as expected with valid credentials.");
@@ -204,8 +298,37 @@ public class BtcBitTest {
         System.out.println("=================================================================");
     }
 
+    @Test
+    @DisplayName("BTCbit.net - Profile Page with Cached Session Test")
+    @MaxCommands(200)
+    public void testProfileWithCachedSession() {
+        // Reuse the session of an earlier login, or log in through the UI once and cache it
+        if (!profilePage.openWithCachedSession(VALID_EMAIL)) {
+            System.out.println("No valid cached session, logging in through the UI");
+            homePage.open();
+            homePage.clickLoginLink();
+            Assertions.assertTrue(loginPage.loginUser(VALID_EMAIL, VALID_PASSWORD),
+                    "Login should succeed with valid credentials");
+            profilePage.waitForPageLoad();
+            AuthSessionCache.getInstance().store(VALID_EMAIL, driver);
+        }
+        
+        // Verify we're on the profile page
+        Assertions.assertTrue(profilePage.verifyPage(), "Should be on the profile page");
+        Assertions.assertTrue(profilePage.isPersonalInformationSectionVisible(), 
+                "Personal Information section should be visible");
+        Assertions.assertTrue(profilePage.verifyProfileEmail(VALID_EMAIL), 
+                "Profile should display the correct email address");
+        
+        System.out.println("=================================================================");
+        System.out.println("Test PASSED: Profile page is available with a cached session.");
+        System.out.println("=================================================================");
+    }
+
     @Test
     @DisplayName("BTCbit.net - Contact Page Information Test")
+    @MaxCommands(120)
+    @Backend(DriverBackend.HTMLUNIT)
     public void testContactsPage() {
         // Open homepage
         homePage.open();
@@ -230,4 +353,29 @@ public class BtcBitTest {
         System.out.println("- Estonia office details verified");
         System.out.println("=================================================================");
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("BTCbit.net - Office Information and Login Page in Parallel Tabs Test")
+    @MaxCommands(300)
+    public void testPagesInParallelTabs() {
+        // Every task claims its own tab, so each gets its own page object
+        ContactsPage estoniaContactsPage = TimedPages.create(ContactsPage.class, driver);
+        
+        // Both office checks and the login page load overlap in one browser session
+        Map<String, Boolean> results = new TabCoordinator(driver).run(Arrays.asList(
+                contactsPage.polandOfficeTask(),
+                estoniaContactsPage.estoniaOfficeTask(),
+                loginPage.pageLoadTask()), WaitBudget.of(TestConfig.actionTimeout()));
+        
+        for (Map.Entry<String, Boolean> result : results.entrySet()) {
+            Assertions.assertEquals(Boolean.TRUE, result.getValue(), result.getKey() + " should be verified");
+        }
+        
+        System.out.println("=================================================================");
+        System.out.println("Test PASSED: Pages verified side by side in one browser session.");
+        System.out.println("- Poland office details verified");
+        System.out.println("- Estonia office details verified");
+        System.out.println("- Login page loaded");
+        System.out.println("=================================================================");
+    }
+}
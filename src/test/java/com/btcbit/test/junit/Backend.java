@@ -0,0 +1,20 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.driver.DriverBackend;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Driver backend a test's page objects run on; tests without it get Chrome.
+ * Mark only tests whose pages can be navigated and checked without JavaScript.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Backend {
+    DriverBackend value();
+}
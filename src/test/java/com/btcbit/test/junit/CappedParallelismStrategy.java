@@ -0,0 +1,52 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.config.TestConfig;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+/**
+ * Sizes the JUnit worker pool to the number of cores, capped by
+ * {@link TestConfig#maxParallelSessions()} so that tests never outnumber browser sessions.
+ */
+public class CappedParallelismStrategy implements ParallelExecutionConfigurationStrategy {
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        int parallelism = Math.min(Runtime.getRuntime().availableProcessors(), TestConfig.maxParallelSessions());
+        return new Configuration(Math.max(1, parallelism));
+    }
+
+    private static class Configuration implements ParallelExecutionConfiguration {
+        private final int parallelism;
+
+        Configuration(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return 30;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.driver.CommandTrace;
+import com.btcbit.test.driver.CommandTracer;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Traces the WebDriver commands of every test body and fails tests that exceed their
+ * {@link MaxCommands} budget. Drivers must be wrapped with {@link CommandTracer#trace}.
+ * Commands issued by waits while they poll are reported but do not count against the budget.
+ * Command counts per test are written to commands.json in the performance report directory.
+ */
+public class CommandBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, AfterAllCallback {
+    private static final Map<String, Map<String, Object>> RESULTS = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        CommandTracer.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        CommandTrace trace = CommandTracer.stop();
+        String test = context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+        MaxCommands budget = context.getRequiredTestMethod().getAnnotation(MaxCommands.class);
+
+        System.out.println("WebDriver commands of " + test + ": " + trace.getTotalCount()
+                + (budget == null ? "" : " (budget " + budget.value() + ")") + ", " + trace.getTotalMillis() + " ms"
+                + ", plus " + trace.getWaitPollCount() + " issued by waits");
+        for (String line : trace.describe()) {
+            System.out.println("  " + line);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("commands", trace.getTotalCount());
+        result.put("budget", budget == null ? null : budget.value());
+        result.put("millis", trace.getTotalMillis());
+        result.put("perCommand", trace.getCounts());
+        result.put("waitPolls", trace.getWaitPollCount());
+        result.put("perWaitPollCommand", trace.getWaitPollCounts());
+        RESULTS.put(test, result);
+
+        if (budget != null && trace.getTotalCount() > budget.value() && TestConfig.commandBudgetsEnforced()) {
+            throw new AssertionError(test + " issued " + trace.getTotalCount()
+                    + " WebDriver commands, budget is " + budget.value());
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (RESULTS.isEmpty()) {
+            return;
+        }
+        Path directory = Paths.get(TestConfig.perfReportDir());
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("commands.json"),
+                    new Json().toJson(new TreeMap<>(RESULTS)).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Failed to write WebDriver command report: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.btcbit.test.junit;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Wall-clock times of the most recent runs of every test, per phase, kept in a JSON file.
+ * The baseline of a phase is the median of the stored runs.
+ */
+public class DurationBaseline {
+    public static final List<String> PHASES = Collections.unmodifiableList(
+            Arrays.asList("setup", "test", "teardown"));
+
+    private final Path file;
+    private final int window;
+    private final Map<String, List<Map<String, Long>>> runs = new TreeMap<>();
+
+    /**
+     * @param file baseline file
+     * @param window number of recent runs kept per test
+     */
+    public DurationBaseline(Path file, int window) {
+        this.file = file;
+        this.window = Math.max(1, window);
+    }
+
+    /**
+     * Reads the baseline file; a missing file is an empty baseline
+     * @return this baseline
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized DurationBaseline load() {
+        if (!Files.exists(file)) {
+            return this;
+        }
+        try {
+            Map<String, Object> stored = new Json().toType(
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8), Json.MAP_TYPE);
+            for (Map.Entry<String, Object> test : stored.entrySet()) {
+                List<Map<String, Long>> testRuns = new ArrayList<>();
+                for (Map<String, Object> run : (List<Map<String, Object>>) test.getValue()) {
+                    Map<String, Long> phases = new LinkedHashMap<>();
+                    for (Map.Entry<String, Object> phase : run.entrySet()) {
+                        phases.put(phase.getKey(), ((Number) phase.getValue()).longValue());
+                    }
+                    testRuns.add(phases);
+                }
+                runs.put(test.getKey(), testRuns);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring unreadable duration baseline " + file + ": " + e.getMessage());
+            runs.clear();
+        }
+        return this;
+    }
+
+    /**
+     * @param test test key
+     * @return number of stored runs of the test
+     */
+    public synchronized int getSampleCount(String test) {
+        List<Map<String, Long>> testRuns = runs.get(test);
+        return testRuns == null ? 0 : testRuns.size();
+    }
+
+    /**
+     * @param test test key
+     * @param phase phase name, or "total"
+     * @return median duration in milliseconds over the stored runs, or -1 without samples
+     */
+    public synchronized long getMedian(String test, String phase) {
+        List<Map<String, Long>> testRuns = runs.get(test);
+        if (testRuns == null || testRuns.isEmpty()) {
+            return -1;
+        }
+        List<Long> values = new ArrayList<>();
+        for (Map<String, Long> run : testRuns) {
+            values.add("total".equals(phase) ? total(run) : run.getOrDefault(phase, 0L));
+        }
+        Collections.sort(values);
+        int middle = values.size() / 2;
+        return values.size() % 2 == 1 ? values.get(middle) : (values.get(middle - 1) + values.get(middle)) / 2;
+    }
+
+    /**
+     * Appends a run, dropping the oldest beyond the window
+     * @param test test key
+     * @param phases milliseconds per phase
+     */
+    public synchronized void add(String test, Map<String, Long> phases) {
+        List<Map<String, Long>> testRuns = runs.computeIfAbsent(test, key -> new ArrayList<>());
+        testRuns.add(new LinkedHashMap<>(phases));
+        while (testRuns.size() > window) {
+            testRuns.remove(0);
+        }
+    }
+
+    /**
+     * Writes the baseline file, replacing the previous version atomically
+     */
+    public synchronized void save() {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "durations", ".tmp");
+            Files.write(temp, new Json().toJson(runs).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Failed to save duration baseline " + file + ": " + e.getMessage());
+        }
+    }
+
+    static long total(Map<String, Long> phases) {
+        long total = 0;
+        for (long value : phases.values()) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,149 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.config.GateMode;
+import com.btcbit.test.config.TestConfig;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records setup (@BeforeEach), test body and teardown (@AfterEach) wall-clock times of every
+ * passing test into a rolling {@link DurationBaseline}, and after the class compares the run
+ * against the median of the previous runs.
+ * A test regresses when its total time exceeds the baseline by more than the configured
+ * percentage and minimum delta; the report names the phase that grew most.
+ */
+public class DurationBaselineExtension implements BeforeEachCallback, BeforeTestExecutionCallback,
+        AfterTestExecutionCallback, AfterEachCallback, AfterAllCallback {
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(DurationBaselineExtension.class);
+
+    // Runs of every test class in this JVM, handed to the ShardRunner by its workers
+    private static final Map<String, Map<String, Long>> RECORDED = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, Long>> currentRun = new ConcurrentHashMap<>();
+
+    /**
+     * @return phases of every passing test recorded in this JVM, by test key
+     */
+    static Map<String, Map<String, Long>> recordedRuns() {
+        return new TreeMap<>(RECORDED);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        context.getStore(NAMESPACE).put("setup", System.nanoTime());
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        lap(context, "setup", "test");
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        lap(context, "test", "teardown");
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        lap(context, "teardown", null);
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        Map<String, Long> phases = new LinkedHashMap<>();
+        for (String phase : DurationBaseline.PHASES) {
+            Long millis = context.getStore(NAMESPACE).get(phase + ".ms", Long.class);
+            phases.put(phase, millis == null ? 0L : millis);
+        }
+        currentRun.put(testKey(context), phases);
+        RECORDED.put(testKey(context), phases);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        GateMode mode = TestConfig.baselineGate();
+        if (mode == GateMode.OFF || currentRun.isEmpty()) {
+            return;
+        }
+        DurationBaseline baseline = new DurationBaseline(Paths.get(TestConfig.baselineFile()),
+                TestConfig.baselineWindow()).load();
+
+        List<String> regressions = new ArrayList<>();
+        System.out.println("Test durations against baseline (median of up to "
+                + TestConfig.baselineWindow() + " previous runs):");
+        for (Map.Entry<String, Map<String, Long>> test : new TreeMap<>(currentRun).entrySet()) {
+            String regression = compare(baseline, test.getKey(), test.getValue());
+            if (regression != null) {
+                regressions.add(regression);
+            }
+            baseline.add(test.getKey(), test.getValue());
+        }
+        baseline.save();
+
+        if (regressions.isEmpty()) {
+            return;
+        }
+        String report = "Duration regressions:\n  " + String.join("\n  ", regressions);
+        System.out.println(report);
+        if (mode == GateMode.FAIL) {
+            throw new AssertionError(report);
+        }
+    }
+
+    private static String compare(DurationBaseline baseline, String test, Map<String, Long> phases) {
+        long total = DurationBaseline.total(phases);
+        if (baseline.getSampleCount(test) < TestConfig.baselineMinSamples()) {
+            System.out.println("  " + test + ": " + total + " ms (collecting baseline, "
+                    + baseline.getSampleCount(test) + " runs)");
+            return null;
+        }
+        long expected = baseline.getMedian(test, "total");
+        System.out.println("  " + test + ": " + total + " ms, baseline " + expected + " ms " + phases);
+
+        long allowed = expected + Math.max(expected * TestConfig.baselineThresholdPercent() / 100,
+                TestConfig.baselineMinDeltaMs());
+        if (total <= allowed) {
+            return null;
+        }
+        String grownPhase = null;
+        long grownBy = Long.MIN_VALUE;
+        for (String phase : DurationBaseline.PHASES) {
+            long delta = phases.getOrDefault(phase, 0L) - baseline.getMedian(test, phase);
+            if (delta > grownBy) {
+                grownBy = delta;
+                grownPhase = phase;
+            }
+        }
+        return String.format("%s took %d ms, baseline %d ms (+%d%%); %s grew most: %d ms -> %d ms",
+                test, total, expected, expected == 0 ? 100 : (total - expected) * 100 / expected, grownPhase,
+                baseline.getMedian(test, grownPhase), phases.getOrDefault(grownPhase, 0L));
+    }
+
+    private static void lap(ExtensionContext context, String finished, String next) {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        long now = System.nanoTime();
+        Long start = store.get(finished, Long.class);
+        if (start != null) {
+            store.put(finished + ".ms", (now - start) / 1_000_000);
+        }
+        if (next != null) {
+            store.put(next, now);
+        }
+    }
+
+    private static String testKey(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+}
@@ -0,0 +1,19 @@
+package com.btcbit.test.junit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the WebDriver commands a test may issue; enforced by {@link CommandBudgetExtension}.
+ * Commands issued by waits while they poll are not counted, so the budget does not depend on
+ * how fast the site answers.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface MaxCommands {
+    int value();
+}
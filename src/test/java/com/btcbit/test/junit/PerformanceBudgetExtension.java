@@ -0,0 +1,48 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.config.GateMode;
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.pages.BasePage;
+import com.btcbit.test.support.PerformanceMonitor;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Fails (with -Dbtcbit.perf.gate=fail) or warns about tests whose navigations exceeded
+ * their front-end performance budgets, and writes the navigation report after the class.
+ * Loads the test left before their load event fired are measured first, while the session is
+ * still held by the test.
+ */
+public class PerformanceBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback, AfterAllCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        PerformanceMonitor.getInstance().drainViolations();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        BasePage.measureAllPendingLoads();
+        List<String> violations = PerformanceMonitor.getInstance().drainViolations();
+        GateMode mode = TestConfig.perfGate();
+        if (violations.isEmpty() || mode == GateMode.OFF) {
+            return;
+        }
+        String report = context.getRequiredTestMethod().getName() + " exceeded performance budgets:\n  "
+                + String.join("\n  ", violations);
+        System.out.println(report);
+        if (mode == GateMode.FAIL) {
+            throw new AssertionError(report);
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        PerformanceMonitor.getInstance().writeReport(Paths.get(TestConfig.perfReportDir()));
+    }
+}
@@ -0,0 +1,158 @@
+package com.btcbit.test.junit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Splits test units into shards of near-equal expected duration with the
+ * longest-processing-time-first rule: units are placed from the longest to the shortest,
+ * each onto the shard with the least planned time so far. The resulting makespan is at
+ * most 4/3 of the optimum.
+ */
+public class ShardPlanner {
+    // Estimate for units never measured when nothing at all has been measured yet
+    private static final long DEFAULT_ESTIMATE_MS = 10000;
+
+    /**
+     * One schedulable unit: a test class or a single test method
+     */
+    public static class Unit {
+        private final String key;
+        private final String selector;
+        private final long measuredMs;
+        private long estimateMs;
+
+        /**
+         * @param key baseline key, e.g. BtcBitTest.testContactsPage
+         * @param selector JUnit class or method selector, e.g. com.btcbit.test.BtcBitTest#testContactsPage()
+         * @param measuredMs median duration from the baseline, or -1 if never measured
+         */
+        public Unit(String key, String selector, long measuredMs) {
+            this.key = key;
+            this.selector = selector;
+            this.measuredMs = measuredMs;
+            this.estimateMs = measuredMs;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getSelector() {
+            return selector;
+        }
+
+        public boolean isMeasured() {
+            return measuredMs >= 0;
+        }
+
+        public long getEstimateMs() {
+            return estimateMs;
+        }
+    }
+
+    /**
+     * Units assigned to one JVM
+     */
+    public static class Shard {
+        private final int index;
+        private final List<Unit> units = new ArrayList<>();
+        private long plannedMs;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public List<Unit> getUnits() {
+            return units;
+        }
+
+        public long getPlannedMs() {
+            return plannedMs;
+        }
+    }
+
+    /**
+     * Assigns every unit to one of the shards. Units without a measurement are estimated
+     * with the median of the measured ones.
+     * @param units units to distribute
+     * @param shardCount number of shards; shards beyond the number of units stay empty and are dropped
+     * @return non-empty shards, each with its planned duration
+     */
+    public static List<Shard> plan(List<Unit> units, int shardCount) {
+        estimateUnmeasured(units);
+        List<Unit> sorted = new ArrayList<>(units);
+        // Longest first; ties by key so the same history always gives the same plan
+        sorted.sort(Comparator.comparingLong(Unit::getEstimateMs).reversed().thenComparing(Unit::getKey));
+
+        PriorityQueue<Shard> byLoad = new PriorityQueue<>(
+                Comparator.comparingLong(Shard::getPlannedMs).thenComparingInt(Shard::getIndex));
+        for (int i = 0; i < Math.max(1, shardCount); i++) {
+            byLoad.add(new Shard(i + 1));
+        }
+        for (Unit unit : sorted) {
+            Shard lightest = byLoad.poll();
+            lightest.units.add(unit);
+            lightest.plannedMs += unit.estimateMs;
+            byLoad.add(lightest);
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (Shard shard : byLoad) {
+            if (!shard.units.isEmpty()) {
+                shards.add(shard);
+            }
+        }
+        shards.sort(Comparator.comparingInt(Shard::getIndex));
+        return shards;
+    }
+
+    /**
+     * Lower bound of the makespan of any split: the total spread evenly, but never less than
+     * the longest single unit
+     * @param units planned units
+     * @param shardCount number of shards
+     * @return ideal makespan in milliseconds
+     */
+    public static long idealMakespanMs(List<Unit> units, int shardCount) {
+        long total = 0;
+        long longest = 0;
+        for (Unit unit : units) {
+            total += unit.estimateMs;
+            longest = Math.max(longest, unit.estimateMs);
+        }
+        long evenSplit = (total + Math.max(1, shardCount) - 1) / Math.max(1, shardCount);
+        return Math.max(evenSplit, longest);
+    }
+
+    /**
+     * Sets the estimate of units without a measurement to the median of the measured ones,
+     * or to 10 seconds if none is measured
+     * @param units units to estimate
+     */
+    public static void estimateUnmeasured(List<Unit> units) {
+        List<Long> measured = new ArrayList<>();
+        for (Unit unit : units) {
+            if (unit.isMeasured()) {
+                measured.add(unit.measuredMs);
+            }
+        }
+        long estimate = DEFAULT_ESTIMATE_MS;
+        if (!measured.isEmpty()) {
+            Collections.sort(measured);
+            estimate = measured.get(measured.size() / 2);
+        }
+        for (Unit unit : units) {
+            if (!unit.isMeasured()) {
+                unit.estimateMs = estimate;
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.btcbit.test.junit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plans of {@link ShardPlanner} for known unit sets; needs no browser.
+ */
+public class ShardPlannerTest {
+
+    @Test
+    @DisplayName("ShardPlanner - longest units first onto the least loaded shard")
+    public void testLongestProcessingTimeFirstPlan() {
+        List<ShardPlanner.Unit> units = Arrays.asList(
+                unit("C", 5000), unit("A", 7000), unit("E", 3000), unit("B", 6000), unit("D", 4000));
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, 2);
+
+        // A -> 1, B -> 2, C -> 2 (6 s < 7 s), D -> 1 (7 s < 11 s), E -> 1 (11 s tie, lower index)
+        Assertions.assertEquals(2, shards.size());
+        Assertions.assertEquals(Arrays.asList("A", "D", "E"), keysOf(shards.get(0)));
+        Assertions.assertEquals(14000, shards.get(0).getPlannedMs());
+        Assertions.assertEquals(Arrays.asList("B", "C"), keysOf(shards.get(1)));
+        Assertions.assertEquals(11000, shards.get(1).getPlannedMs());
+        Assertions.assertEquals(12500, ShardPlanner.idealMakespanMs(units, 2));
+    }
+
+    @Test
+    @DisplayName("ShardPlanner - equal estimates are placed in key order")
+    public void testTiesArePlacedByKey() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(
+                Arrays.asList(unit("b", 1000), unit("c", 1000), unit("a", 1000)), 2);
+
+        Assertions.assertEquals(Arrays.asList("a", "c"), keysOf(shards.get(0)));
+        Assertions.assertEquals(Arrays.asList("b"), keysOf(shards.get(1)));
+    }
+
+    @Test
+    @DisplayName("ShardPlanner - shards beyond the number of units are dropped")
+    public void testEmptyShardsAreDropped() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(Arrays.asList(unit("A", 2000), unit("B", 1000)), 4);
+
+        Assertions.assertEquals(2, shards.size());
+        Assertions.assertEquals(1, shards.get(0).getIndex());
+        Assertions.assertEquals(2, shards.get(1).getIndex());
+        Assertions.assertEquals(2000, ShardPlanner.idealMakespanMs(Arrays.asList(unit("A", 2000), unit("B", 1000)), 4));
+    }
+
+    @Test
+    @DisplayName("ShardPlanner - unmeasured units get the median of the measured ones")
+    public void testUnmeasuredUnitsGetMedianEstimate() {
+        ShardPlanner.Unit unmeasured = unit("new", -1);
+        ShardPlanner.estimateUnmeasured(Arrays.asList(unit("A", 300), unmeasured, unit("B", 100), unit("C", 200)));
+        Assertions.assertFalse(unmeasured.isMeasured());
+        Assertions.assertEquals(200, unmeasured.getEstimateMs());
+
+        // With an even count the upper of the two middle values is used
+        unmeasured = unit("new", -1);
+        ShardPlanner.estimateUnmeasured(Arrays.asList(
+                unit("A", 400), unit("B", 100), unmeasured, unit("C", 300), unit("D", 200)));
+        Assertions.assertEquals(300, unmeasured.getEstimateMs());
+    }
+
+    @Test
+    @DisplayName("ShardPlanner - unmeasured units get 10 s when nothing is measured")
+    public void testUnmeasuredUnitsWithoutHistory() {
+        ShardPlanner.Unit first = unit("A", -1);
+        ShardPlanner.Unit second = unit("B", -1);
+
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(Arrays.asList(first, second), 2);
+
+        Assertions.assertEquals(10000, first.getEstimateMs());
+        Assertions.assertEquals(10000, second.getEstimateMs());
+        Assertions.assertEquals(2, shards.size());
+        Assertions.assertEquals(10000, shards.get(0).getPlannedMs());
+    }
+
+    private static ShardPlanner.Unit unit(String key, long measuredMs) {
+        return new ShardPlanner.Unit(key, "com.btcbit.test.BtcBitTest#" + key + "()", measuredMs);
+    }
+
+    private static List<String> keysOf(ShardPlanner.Shard shard) {
+        List<String> keys = new ArrayList<>();
+        for (ShardPlanner.Unit unit : shard.getUnits()) {
+            keys.add(unit.getKey());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,398 @@
+package com.btcbit.test.junit;
+
+import com.btcbit.test.config.GateMode;
+import com.btcbit.test.config.ShardGranularity;
+import com.btcbit.test.config.TestConfig;
+import com.btcbit.test.support.PersistedStats;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the suite as K duration-balanced shards in parallel JVMs.
+ * Test methods (or classes) are discovered with the JUnit Platform launcher, estimated from
+ * the medians in the {@link DurationBaseline} and split by {@link ShardPlanner}. Every shard
+ * runs in its own {@link ShardWorker} JVM on the test classpath; their results are merged into
+ * one report together with how close each shard came to the ideal makespan, and the new
+ * durations are added to the baseline for the next plan. Locator, launch and resource
+ * statistics are handed to each shard as a private copy as well, and what the shards added
+ * is merged back into the shared files.
+ */
+public class ShardRunner {
+    private static final String TEST_PACKAGE = "com.btcbit.test";
+
+    public static void main(String[] args) throws Exception {
+        int shardCount = TestConfig.shardCount();
+        Path directory = Paths.get(TestConfig.shardDir());
+        Path baselineFile = Paths.get(TestConfig.baselineFile());
+        DurationBaseline baseline = new DurationBaseline(baselineFile, TestConfig.baselineWindow()).load();
+
+        List<ShardPlanner.Unit> units = discoverUnits(baseline, TestConfig.shardGranularity());
+        if (units.isEmpty()) {
+            System.out.println("No tests found in " + TEST_PACKAGE);
+            return;
+        }
+        Map<String, Path> statisticsFiles = statisticsFiles();
+        Map<String, Properties> startStatistics = new LinkedHashMap<>();
+        for (Map.Entry<String, Path> statistics : statisticsFiles.entrySet()) {
+            Properties stored = PersistedStats.loadProperties(statistics.getValue(), statistics.getKey());
+            startStatistics.put(statistics.getKey(), stored == null ? new Properties() : stored);
+        }
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, shardCount);
+        long idealMs = ShardPlanner.idealMakespanMs(units, shardCount);
+        printPlan(shards, idealMs);
+
+        List<Map<String, Object>> shardReports = new ArrayList<>();
+        List<Map<String, Object>> testReports = new ArrayList<>();
+        boolean failed = runShards(shards, directory, baselineFile, statisticsFiles, idealMs,
+                shardReports, testReports);
+
+        writeReport(directory, idealMs, shardReports, testReports);
+        mergeStatistics(shards, directory, statisticsFiles, startStatistics);
+        if (TestConfig.baselineGate() != GateMode.OFF) {
+            mergeIntoBaseline(baseline, testReports);
+        }
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * @param source test method
+     * @return baseline key of the method, e.g. BtcBitTest.testContactsPage
+     */
+    static String keyOf(MethodSource source) {
+        String className = source.getClassName();
+        return className.substring(className.lastIndexOf('.') + 1) + "." + source.getMethodName();
+    }
+
+    private static List<ShardPlanner.Unit> discoverUnits(DurationBaseline baseline, ShardGranularity granularity) {
+        TestPlan plan = LauncherFactory.create().discover(LauncherDiscoveryRequestBuilder.request()
+                .selectors(DiscoverySelectors.selectPackage(TEST_PACKAGE))
+                .build());
+
+        // Methods with their selectors; parameterized methods are containers at discovery time
+        Map<String, ShardPlanner.Unit> methods = new TreeMap<>();
+        Map<String, String> classOfMethod = new TreeMap<>();
+        for (TestIdentifier root : plan.getRoots()) {
+            for (TestIdentifier identifier : plan.getDescendants(root)) {
+                if (!identifier.getSource().isPresent() || !(identifier.getSource().get() instanceof MethodSource)) {
+                    continue;
+                }
+                MethodSource source = (MethodSource) identifier.getSource().get();
+                String key = keyOf(source);
+                String selector = source.getClassName() + "#" + source.getMethodName()
+                        + "(" + source.getMethodParameterTypes() + ")";
+                methods.putIfAbsent(key, new ShardPlanner.Unit(key, selector, baseline.getMedian(key, "total")));
+                classOfMethod.put(key, source.getClassName());
+            }
+        }
+        List<ShardPlanner.Unit> methodUnits = new ArrayList<>(methods.values());
+        if (granularity == ShardGranularity.METHOD) {
+            return methodUnits;
+        }
+
+        // A class is estimated as the sum of its methods, unmeasured ones at the usual estimate
+        ShardPlanner.estimateUnmeasured(methodUnits);
+        Map<String, Long> classEstimates = new TreeMap<>();
+        for (ShardPlanner.Unit method : methodUnits) {
+            classEstimates.merge(classOfMethod.get(method.getKey()), method.getEstimateMs(), Long::sum);
+        }
+        List<ShardPlanner.Unit> classUnits = new ArrayList<>();
+        for (Map.Entry<String, Long> testClass : classEstimates.entrySet()) {
+            String className = testClass.getKey();
+            classUnits.add(new ShardPlanner.Unit(className.substring(className.lastIndexOf('.') + 1),
+                    className, testClass.getValue()));
+        }
+        return classUnits;
+    }
+
+    private static void printPlan(List<ShardPlanner.Shard> shards, long idealMs) {
+        System.out.println("Shard plan (longest processing time first), ideal makespan " + idealMs + " ms:");
+        for (ShardPlanner.Shard shard : shards) {
+            List<String> names = new ArrayList<>();
+            for (ShardPlanner.Unit unit : shard.getUnits()) {
+                names.add(unit.getKey() + (unit.isMeasured() ? "" : " (estimated)"));
+            }
+            System.out.println(String.format("  shard %d: %6d ms planned  %s",
+                    shard.getIndex(), shard.getPlannedMs(), String.join(", ", names)));
+        }
+    }
+
+    /**
+     * @return statistics files shared by all runs, by the property that sets them
+     */
+    private static Map<String, Path> statisticsFiles() {
+        Map<String, Path> files = new LinkedHashMap<>();
+        files.put(TestConfig.LOCATOR_CACHE_FILE, Paths.get(TestConfig.locatorCacheFile()));
+        files.put(TestConfig.LAUNCH_STATS_FILE, Paths.get(TestConfig.launchStatsFile()));
+        files.put(TestConfig.RESOURCE_STATS_FILE, Paths.get(TestConfig.resourceStatsFile()));
+        return files;
+    }
+
+    private static Path shardCopyOf(Path shardDirectory, String property) {
+        return shardDirectory.resolve(property + ".properties");
+    }
+
+    private static void copyOrDelete(Path source, Path copy) throws IOException {
+        if (Files.exists(source)) {
+            Files.copy(source, copy, StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    private static boolean runShards(List<ShardPlanner.Shard> shards, Path directory, Path baselineFile,
+                                     Map<String, Path> statisticsFiles, long idealMs,
+                                     List<Map<String, Object>> shardReports, List<Map<String, Object>> testReports)
+            throws IOException, InterruptedException {
+        String classpath = testClasspath();
+        String runId = TestConfig.testDataRunId();
+        List<Process> processes = new ArrayList<>();
+        List<CompletableFuture<Long>> finished = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardPlanner.Shard shard = shards.get(i);
+            Path shardDirectory = directory.resolve("shard-" + shard.getIndex());
+            Files.createDirectories(shardDirectory);
+            Files.deleteIfExists(shardDirectory.resolve("results.json"));
+            // Each shard gates against a private copy, so parallel JVMs never overwrite each other's runs
+            Path shardBaseline = shardDirectory.resolve("durations.json");
+            copyOrDelete(baselineFile, shardBaseline);
+
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.addAll(forwardedProperties(statisticsFiles.keySet()));
+            command.add("-D" + TestConfig.BASELINE_FILE + "=" + shardBaseline.toAbsolutePath());
+            for (Map.Entry<String, Path> statistics : statisticsFiles.entrySet()) {
+                Path copy = shardCopyOf(shardDirectory, statistics.getKey());
+                copyOrDelete(statistics.getValue(), copy);
+                command.add("-D" + statistics.getKey() + "=" + copy.toAbsolutePath());
+            }
+            // Every shard counts its emails from 1, so each needs a run ID of its own
+            command.add("-D" + TestConfig.TEST_DATA_RUN_ID + "=" + runId + "s" + shard.getIndex());
+            command.add("-cp");
+            command.add(classpath);
+            command.add(ShardWorker.class.getName());
+            command.add(shardDirectory.toAbsolutePath().toString());
+            for (ShardPlanner.Unit unit : shard.getUnits()) {
+                command.add(unit.getSelector());
+            }
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(shardDirectory.resolve("output.txt").toFile())
+                    .start();
+            processes.add(process);
+            finished.add(process.onExit().thenApply(exited -> System.nanoTime()));
+        }
+
+        boolean failed = false;
+        for (int i = 0; i < shards.size(); i++) {
+            ShardPlanner.Shard shard = shards.get(i);
+            long actualMs = (finished.get(i).join() - start) / 1_000_000;
+            int exitCode = processes.get(i).waitFor();
+            Path shardDirectory = directory.resolve("shard-" + shard.getIndex());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("shard", shard.getIndex());
+            report.put("units", shard.getUnits().size());
+            report.put("plannedMs", shard.getPlannedMs());
+            report.put("actualMs", actualMs);
+            report.put("percentOfIdeal", idealMs == 0 ? 0 : Math.round(actualMs * 100.0 / idealMs));
+            report.put("exitCode", exitCode);
+            shardReports.add(report);
+
+            List<Map<String, Object>> results = readResults(shardDirectory.resolve("results.json"));
+            if (results == null) {
+                System.out.println("Shard " + shard.getIndex() + " ended without results (exit code " + exitCode
+                        + "), see " + shardDirectory.resolve("output.txt"));
+                failed = true;
+                continue;
+            }
+            for (Map<String, Object> result : results) {
+                result.put("shard", shard.getIndex());
+                testReports.add(result);
+                failed |= "FAILED".equals(result.get("status"));
+            }
+            // A worker that crashed after writing results, or failed in a way no listener saw
+            if (exitCode != 0) {
+                System.out.println("Shard " + shard.getIndex() + " exited with code " + exitCode
+                        + ", see " + shardDirectory.resolve("output.txt"));
+                failed = true;
+            }
+        }
+        return failed;
+    }
+
+    private static void writeReport(Path directory, long idealMs, List<Map<String, Object>> shardReports,
+                                    List<Map<String, Object>> testReports) {
+        long makespan = 0;
+        for (Map<String, Object> shard : shardReports) {
+            makespan = Math.max(makespan, (Long) shard.get("actualMs"));
+        }
+        testReports.sort((a, b) -> ((String) a.get("key")).compareTo((String) b.get("key")));
+
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("%-8s %6s %12s %12s %10s %6s%n",
+                "shard", "units", "planned ms", "actual ms", "% ideal", "exit"));
+        for (Map<String, Object> shard : shardReports) {
+            text.append(String.format("%-8s %6d %12d %12d %9d%% %6d%n", "shard-" + shard.get("shard"),
+                    shard.get("units"), shard.get("plannedMs"), shard.get("actualMs"),
+                    shard.get("percentOfIdeal"), shard.get("exitCode")));
+        }
+        text.append(String.format("Makespan %d ms, ideal %d ms (%d%%)%n", makespan, idealMs,
+                idealMs == 0 ? 0 : Math.round(makespan * 100.0 / idealMs)));
+
+        Map<String, Integer> statusCounts = new TreeMap<>();
+        for (Map<String, Object> test : testReports) {
+            statusCounts.merge((String) test.get("status"), 1, Integer::sum);
+            if ("FAILED".equals(test.get("status")) || "ABORTED".equals(test.get("status"))) {
+                text.append(String.format("  %s %s (shard %s): %s%n", test.get("status"), test.get("key"),
+                        test.get("shard"), test.get("message")));
+            }
+        }
+        text.append("Tests: ").append(statusCounts).append(System.lineSeparator());
+        System.out.print(text);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("idealMakespanMs", idealMs);
+        json.put("makespanMs", makespan);
+        json.put("shards", shardReports);
+        json.put("tests", testReports);
+        try {
+            Files.createDirectories(directory);
+            Files.write(directory.resolve("summary.json"), new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            Files.write(directory.resolve("summary.txt"), text.toString().getBytes(StandardCharsets.UTF_8));
+            System.out.println("Merged shard report written to " + directory.toAbsolutePath()
+                    + "; JUnit XML reports are in the shard-N directories");
+        } catch (IOException e) {
+            System.out.println("Failed to write merged shard report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds what every shard changed in its copy to the shared statistics files. The files are read
+     * again first, so statistics saved by another run in the meantime are kept.
+     */
+    private static void mergeStatistics(List<ShardPlanner.Shard> shards, Path directory,
+                                        Map<String, Path> statisticsFiles, Map<String, Properties> startStatistics) {
+        for (Map.Entry<String, Path> statistics : statisticsFiles.entrySet()) {
+            Properties start = startStatistics.get(statistics.getKey());
+            Properties merged = PersistedStats.loadProperties(statistics.getValue(), statistics.getKey());
+            if (merged == null) {
+                merged = new Properties();
+            }
+            boolean changed = false;
+            for (ShardPlanner.Shard shard : shards) {
+                Properties run = PersistedStats.loadProperties(
+                        shardCopyOf(directory.resolve("shard-" + shard.getIndex()), statistics.getKey()),
+                        statistics.getKey());
+                if (run != null) {
+                    PersistedStats.addRun(merged, start, run);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                PersistedStats.saveProperties(statistics.getValue(), merged, "Merged from shards");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mergeIntoBaseline(DurationBaseline baseline, List<Map<String, Object>> testReports) {
+        for (Map<String, Object> test : testReports) {
+            if (!"SUCCESSFUL".equals(test.get("status"))) {
+                continue;
+            }
+            Map<String, Long> phases = new LinkedHashMap<>();
+            Object recorded = test.get("phases");
+            if (recorded instanceof Map) {
+                for (Map.Entry<String, Object> phase : ((Map<String, Object>) recorded).entrySet()) {
+                    phases.put(phase.getKey(), ((Number) phase.getValue()).longValue());
+                }
+            } else {
+                // Tests without the baseline extension only have their overall time
+                phases.put("test", ((Number) test.get("durationMs")).longValue());
+            }
+            baseline.add((String) test.get("key"), phases);
+        }
+        baseline.save();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> readResults(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            List<Object> stored = new Json().toType(
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8), List.class);
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (Object result : stored) {
+                results.add(new LinkedHashMap<>((Map<String, Object>) result));
+            }
+            return results;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Unreadable shard results " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String testClasspath() {
+        // exec:java runs the project in its own class loader; a plain java -cp launch has it on java.class.path
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (Exception e) {
+                    System.out.println("Skipping classpath entry " + url + ": " + e.getMessage());
+                }
+            }
+            if (!entries.isEmpty()) {
+                return String.join(File.pathSeparator, entries);
+            }
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    /**
+     * @param overridden further properties every shard gets a value of its own for
+     * @return -D options passing this JVM's settings on to a shard
+     */
+    private static List<String> forwardedProperties(Set<String> overridden) {
+        Set<String> names = new TreeSet<>(System.getProperties().stringPropertyNames());
+        List<String> properties = new ArrayList<>();
+        for (String name : names) {
+            if ((name.startsWith("btcbit.") || name.startsWith("junit.") || name.startsWith("webdriver."))
+                    && !name.equals(TestConfig.BASELINE_FILE) && !name.equals(TestConfig.TEST_DATA_RUN_ID)
+                    && !overridden.contains(name)) {
+                properties.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        return Collections.unmodifiableList(properties);
+    }
+}
@@ -0,0 +1,162 @@
+package com.btcbit.test.junit;
+
+import org.junit.platform.engine.DiscoverySelector;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.discovery.DiscoverySelectors;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.reporting.legacy.xml.LegacyXmlReportGeneratingListener;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs the tests of one shard in a JVM started by {@link ShardRunner} and writes
+ * results.json and JUnit XML reports to the shard directory.
+ * Arguments: shard directory, then class or method selectors.
+ */
+public class ShardWorker {
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args[0]);
+        List<DiscoverySelector> selectors = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            selectors.add(args[i].contains("#")
+                    ? DiscoverySelectors.selectMethod(args[i])
+                    : DiscoverySelectors.selectClass(args[i]));
+        }
+
+        Files.createDirectories(directory);
+        Launcher launcher = LauncherFactory.create();
+        ResultCollector results = new ResultCollector();
+        PrintWriter out = new PrintWriter(System.out, true);
+        launcher.execute(LauncherDiscoveryRequestBuilder.request().selectors(selectors).build(),
+                results, new LegacyXmlReportGeneratingListener(directory, out));
+
+        results.write(directory.resolve("results.json"), DurationBaselineExtension.recordedRuns());
+        System.exit(results.hasFailures() ? 1 : 0);
+    }
+
+    /**
+     * Status and wall-clock time of every test method; invocations of one method are added up.
+     * Containers are listed only when they fail, e.g. in @BeforeAll or an AfterAllCallback,
+     * since their tests are then missing or already reported as passed.
+     */
+    private static class ResultCollector implements TestExecutionListener {
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, Object>> tests = new ConcurrentHashMap<>();
+
+        @Override
+        public void executionStarted(TestIdentifier identifier) {
+            if (identifier.isTest()) {
+                started.put(identifier.getUniqueId(), System.nanoTime());
+            }
+        }
+
+        @Override
+        public void executionSkipped(TestIdentifier identifier, String reason) {
+            String key = keyOf(identifier);
+            if (key != null) {
+                tests.computeIfAbsent(key, ResultCollector::newResult).putIfAbsent("message", reason);
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+            if (identifier.isContainer() && result.getStatus() != TestExecutionResult.Status.SUCCESSFUL) {
+                Map<String, Object> container = newResult(containerKeyOf(identifier));
+                container.put("container", true);
+                container.put("status", result.getStatus().name());
+                result.getThrowable().ifPresent(error -> container.put("message", String.valueOf(error.getMessage())));
+                tests.put((String) container.get("key"), container);
+            }
+            Long start = started.remove(identifier.getUniqueId());
+            String key = keyOf(identifier);
+            if (!identifier.isTest() || start == null || key == null) {
+                return;
+            }
+            Map<String, Object> test = tests.computeIfAbsent(key, ResultCollector::newResult);
+            synchronized (test) {
+                test.put("durationMs", (Long) test.get("durationMs") + (System.nanoTime() - start) / 1_000_000);
+                String status = result.getStatus().name();
+                if (rank(status) > rank((String) test.get("status"))) {
+                    test.put("status", status);
+                    result.getThrowable().ifPresent(error -> test.put("message", String.valueOf(error.getMessage())));
+                }
+            }
+        }
+
+        boolean hasFailures() {
+            for (Map<String, Object> test : tests.values()) {
+                if ("FAILED".equals(test.get("status"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void write(Path file, Map<String, Map<String, Long>> phases) throws IOException {
+            List<Map<String, Object>> json = new ArrayList<>();
+            for (Map<String, Object> test : tests.values()) {
+                Map<String, Long> testPhases = phases.get(test.get("key"));
+                if (testPhases != null) {
+                    test.put("phases", testPhases);
+                }
+                json.add(test);
+            }
+            Files.write(file, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Map<String, Object> newResult(String key) {
+            Map<String, Object> test = new LinkedHashMap<>();
+            test.put("key", key);
+            test.put("status", "SKIPPED");
+            test.put("durationMs", 0L);
+            return test;
+        }
+
+        private static int rank(String status) {
+            switch (status) {
+                case "FAILED":
+                    return 3;
+                case "ABORTED":
+                    return 2;
+                case "SUCCESSFUL":
+                    return 1;
+                default:
+                    return 0;
+            }
+        }
+
+        private static String containerKeyOf(TestIdentifier identifier) {
+            String name = identifier.getSource()
+                    .filter(source -> source instanceof ClassSource)
+                    .map(source -> ((ClassSource) source).getClassName())
+                    .map(className -> className.substring(className.lastIndexOf('.') + 1))
+                    .orElse(identifier.getDisplayName());
+            return name + " (container)";
+        }
+
+        private static String keyOf(TestIdentifier identifier) {
+            return identifier.getSource()
+                    .filter(source -> source instanceof MethodSource)
+                    .map(source -> ShardRunner.keyOf((MethodSource) source))
+                    .orElse(null);
+        }
+    }
+}
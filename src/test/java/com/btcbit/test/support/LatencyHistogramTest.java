@@ -0,0 +1,86 @@
+package com.btcbit.test.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bucket layout and percentiles of {@link LatencyHistogram}; needs no browser.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("LatencyHistogram - values below 64 us get exact buckets")
+    public void testExactBuckets() {
+        Assertions.assertEquals(31, LatencyHistogram.indexOf(31));
+        Assertions.assertEquals(31, LatencyHistogram.upperBoundOf(31));
+        // 32 us starts the first log-linear range, whose sub-buckets are still 1 us wide
+        Assertions.assertEquals(32, LatencyHistogram.indexOf(32));
+        Assertions.assertEquals(32, LatencyHistogram.upperBoundOf(32));
+        Assertions.assertEquals(63, LatencyHistogram.indexOf(63));
+        Assertions.assertEquals(63, LatencyHistogram.upperBoundOf(63));
+    }
+
+    @Test
+    @DisplayName("LatencyHistogram - sub-buckets double in width with every power of two")
+    public void testLogLinearBuckets() {
+        Assertions.assertEquals(64, LatencyHistogram.indexOf(64));
+        Assertions.assertEquals(64, LatencyHistogram.indexOf(65));
+        Assertions.assertEquals(65, LatencyHistogram.upperBoundOf(64));
+        Assertions.assertEquals(65, LatencyHistogram.indexOf(66));
+        Assertions.assertEquals(127, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(127)));
+        Assertions.assertEquals(1007, LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(1000)));
+        // Every bound is at most 1/32 above the values it holds
+        for (long micros = 1; micros < 1_000_000; micros = micros * 3 + 1) {
+            long bound = LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(micros));
+            Assertions.assertTrue(bound >= micros && bound <= micros + micros / 32, micros + " us -> " + bound);
+        }
+    }
+
+    @Test
+    @DisplayName("LatencyHistogram - values beyond the range land in the overflow bucket")
+    public void testOverflowBucket() {
+        int last = LatencyHistogram.BUCKETS - 1;
+        Assertions.assertEquals(last, LatencyHistogram.indexOf((1L << 41) - 1));
+        Assertions.assertEquals(last, LatencyHistogram.indexOf(1L << 41));
+        Assertions.assertEquals(last, LatencyHistogram.indexOf(Long.MAX_VALUE));
+        Assertions.assertEquals(last - 1, LatencyHistogram.indexOf((1L << 41) - (1L << 35) - 1));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(1000);
+        histogram.recordNanos((1L << 45) * 1000);
+        Assertions.assertEquals(1, histogram.getPercentileMicros(50));
+        Assertions.assertEquals(1L << 45, histogram.getPercentileMicros(100));
+        Assertions.assertEquals(1L << 45, histogram.getMaxMicros());
+    }
+
+    @Test
+    @DisplayName("LatencyHistogram - percentiles of 1..100 us")
+    public void testPercentilesOfKnownDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 100; micros >= 1; micros--) {
+            histogram.recordNanos(micros * 1000 + 999);
+        }
+
+        Assertions.assertEquals(100, histogram.getCount());
+        Assertions.assertEquals(100, histogram.getMaxMicros());
+        Assertions.assertEquals(50, histogram.getMeanMicros());
+        Assertions.assertEquals(1, histogram.getPercentileMicros(0));
+        Assertions.assertEquals(50, histogram.getPercentileMicros(50));
+        // 90 and 91 share a 2 us bucket, and so do 98 and 99
+        Assertions.assertEquals(91, histogram.getPercentileMicros(90));
+        Assertions.assertEquals(99, histogram.getPercentileMicros(99));
+        // The bucket of 100 reaches 101 us, but no percentile exceeds the largest value
+        Assertions.assertEquals(100, histogram.getPercentileMicros(100));
+    }
+
+    @Test
+    @DisplayName("LatencyHistogram - empty histogram reports zero")
+    public void testEmptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getPercentileMicros(99));
+        Assertions.assertEquals(0, histogram.getMeanMicros());
+    }
+}
@@ -0,0 +1,38 @@
+package com.btcbit.test.support;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+/**
+ * Merging of runs by {@link PersistedStats#addRun}; needs no browser.
+ */
+public class PersistedStatsTest {
+
+    @Test
+    @DisplayName("PersistedStats - counts of parallel runs add up, changed winners are taken over")
+    public void testAddRun() {
+        Properties start = properties("login.winner", "css", "login.wins.css", "4", "FAST.LAUNCH.count", "2");
+        Properties merged = properties("login.winner", "css", "login.wins.css", "4", "FAST.LAUNCH.count", "2");
+
+        PersistedStats.addRun(merged, start, properties(
+                "login.winner", "css", "login.wins.css", "6", "FAST.LAUNCH.count", "3"));
+        PersistedStats.addRun(merged, start, properties(
+                "login.winner", "xpath", "login.wins.css", "5", "login.wins.xpath", "1", "FAST.LAUNCH.count", "2"));
+
+        Assertions.assertEquals("xpath", merged.getProperty("login.winner"));
+        Assertions.assertEquals("7", merged.getProperty("login.wins.css"));
+        Assertions.assertEquals("1", merged.getProperty("login.wins.xpath"));
+        Assertions.assertEquals("3", merged.getProperty("FAST.LAUNCH.count"));
+    }
+
+    private static Properties properties(String... keysAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            properties.setProperty(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return properties;
+    }
+}